@@ -1,100 +1,540 @@
 package com.visualizer.sorting;
 
-import javafx.animation.*;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
 import javafx.scene.paint.Color;
-import javafx.util.Duration;
-import java.util.List;
+import java.util.BitSet;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 
 class AnimationManager {
-    private Timeline timeline;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long COMPLETION_WAVE_NANOS = 1_500_000_000L;
+    // Past this many changed bars in one frame a full diff of the array is cheaper
+    private static final int MAX_DIRTY_BARS = 1024;
+    // A seek walks at most this many steps to keep the line profile exact; a profile checkpoint is never further
+    private static final int MAX_PROFILE_WALK = LineProfile.CHECKPOINT_INTERVAL;
+
+    private final AnimationTimer playbackTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            advance(now);
+        }
+    };
+    private final AnimationTimer waveTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            advanceCompletionWave(now);
+        }
+    };
+    private boolean isRunning = false;
     private boolean isPaused = false;
-    private int currentStepIndex = 0;
-    private List<SortStep> steps;
-    private BarVisualizer visualizer;
+    // Timed playback undoes steps instead of applying them
+    private boolean reverse = false;
+    private long currentStepIndex = -1;
+    private StepStream steps;
+    private int[] currentState;
+    private final BitSet sortedMarks = new BitSet();
+    private SortingStatistics statistics = new SortingStatistics(null);
+    private LineProfile lineProfile;
+    private BarRenderer visualizer;
+    private Runnable onComplete;
     private Consumer<SortStep> onStepUpdate;
+    private double stepsPerSecond;
+    private double pendingSteps;
+    private long lastFrameNanos;
+    private long frameIntervalNanos = NANOS_PER_SECOND / 60;
+    private long lastRenderNanos;
+    private final int[] dirtyBars = new int[MAX_DIRTY_BARS];
+    private final BitSet dirtyMarks = new BitSet();
+    private int dirtyCount;
+    private long waveStartNanos;
+    private int waveIndex;
+    private long lastSeekNanos;
+    private int lastSeekReplayed;
+    // A seek past the recorded steps runs on a generation thread, which owns seekingSteps until it lands
+    private Future<?> seekTask;
+    private StepStream seekingSteps;
+    private long queuedSeek = -1;
+    private Runnable queuedOnLanded;
+    // What the getters report while a seek thread owns the stream, taken as the seek started
+    private long seekRecordedSteps;
+    private long seekCheckpointBytes;
+    private long seekTraceBytes;
+    // Driven by the owner's advance calls instead of its own timer, so several managers share one clock
+    private final boolean sharedClock;
+
+    public AnimationManager() {
+        this(false);
+    }
 
-    public void playSteps(List<SortStep> steps, BarVisualizer visualizer, double speed, 
+    public AnimationManager(boolean sharedClock) {
+        this.sharedClock = sharedClock;
+    }
+
+    public void playSteps(StepStream steps, BarRenderer visualizer, double speed, 
                          Runnable onComplete, Consumer<SortStep> onStepUpdate) {
         playStepsWithCodeTracking(steps, visualizer, speed, onComplete, onStepUpdate);
     }
 
-    public void playStepsWithCodeTracking(List<SortStep> steps, BarVisualizer visualizer, double speed, 
+    public void playStepsWithCodeTracking(StepStream steps, BarRenderer visualizer, double speed, 
                                          Runnable onComplete, Consumer<SortStep> onStepUpdate) {
+        waveTimer.stop();
+        // The previous run stays open for scrubbing until a new one replaces it
+        if (this.steps != null && this.steps != steps) {
+            closeSteps(this.steps);
+        }
+        queuedSeek = -1;
         this.steps = steps;
         this.visualizer = visualizer;
+        this.onComplete = onComplete;
         this.onStepUpdate = onStepUpdate;
-        this.currentStepIndex = 0;
+        this.currentState = steps.getInitialState();
+        this.statistics = new SortingStatistics(steps.getAlgorithm());
+        this.currentStepIndex = -1;
         this.isPaused = false;
+        this.isRunning = true;
+        this.reverse = false;
+        this.pendingSteps = 0;
+        this.lastFrameNanos = -1;
+        clearDirtyBars();
+        setSpeed(speed);
 
-        double durationMs = Math.max(100, 1200.0 / speed);
-        
-        timeline = new Timeline();
-        
-        for (int i = 0; i < steps.size(); i++) {
-            final int stepIndex = i;
-            KeyFrame keyFrame = new KeyFrame(
-                Duration.millis(durationMs * (i + 1)),
-                e -> executeStep(stepIndex)
-            );
-            timeline.getKeyFrames().add(keyFrame);
+        if (!sharedClock) {
+            playbackTimer.start();
         }
-        
-        timeline.setOnFinished(e -> {
-            if (onComplete != null) {
-                onComplete.run();
+    }
+
+    /**
+     * Maps the speed slider position to a playback rate. Each notch is about 2.15x
+     * faster than the previous one: 1 is under a step a second, 19 is close to a
+     * million steps a second.
+     */
+    public static double stepsPerSecond(double speed) {
+        return 0.8 * Math.pow(10, (speed - 1) / 3.0);
+    }
+
+    // Takes effect on the next frame; playback does not restart
+    public void setSpeed(double speed) {
+        this.stepsPerSecond = stepsPerSecond(speed);
+    }
+    
+    /**
+     * Caps how often playback draws. Pulses in between are skipped and their steps
+     * are owed to the next frame drawn, so a low frame rate shows fewer frames
+     * rather than slowing playback down.
+     */
+    public void setTargetFps(int fps) {
+        this.frameIntervalNanos = NANOS_PER_SECOND / Math.max(1, fps);
+    }
+    
+    // Called on every pulse, by the playback timer or by the owner of a shared clock
+    void advance(long now) {
+        if (!isRunning || isPaused || seekTask != null) return;
+
+        if (lastFrameNanos < 0) {
+            lastFrameNanos = now;
+            lastRenderNanos = now - frameIntervalNanos;
+            // Show the first step straight away rather than after a full interval
+            pendingSteps = 1;
+        }
+        pendingSteps += (now - lastFrameNanos) * stepsPerSecond / NANOS_PER_SECOND;
+        lastFrameNanos = now;
+        // Pulses jitter, so one arriving a little early still counts as on time
+        if (now - lastRenderNanos < frameIntervalNanos * 9 / 10) {
+            return;
+        }
+        lastRenderNanos = now;
+
+        PerformanceEvents.PlaybackFrame frame = new PerformanceEvents.PlaybackFrame();
+        frame.begin();
+        // Every step due this frame is applied, but only the last one is drawn
+        SortStep last = null;
+        int applied = 0;
+        boolean finished = false;
+        while (pendingSteps >= 1) {
+            if (!reverse && !steps.isNextReady()) {
+                // The algorithm thread is behind; the frame is skipped rather than waited for
+                pendingSteps = 0;
+                break;
+            }
+            if (reverse ? !steps.hasPrevious() : !steps.hasNext()) {
+                finished = true;
+                break;
+            }
+            if (reverse) {
+                last = steps.previous();
+                undoStep(last);
+            } else {
+                if (last != null) {
+                    applyMarks(last);
+                }
+                last = steps.next();
+                applyStep(last);
+            }
+            applied++;
+            pendingSteps--;
+        }
+        int barsChanged = Math.min(dirtyCount, currentState.length);
+        if (last != null) {
+            render(last, reverse);
+        }
+        frame.end();
+        if (frame.shouldCommit()) {
+            frame.stepsApplied = applied;
+            frame.barsChanged = barsChanged;
+            frame.commit();
+        }
+        if (finished) {
+            finish();
+        }
+    }
+
+    /**
+     * Jumps so that exactly stepCount steps have been applied, then runs onLanded.
+     * The stream rebuilds the array from its nearest checkpoint plus the steps after
+     * it, so the cost is bounded by the checkpoint interval rather than by stepCount.
+     * A seek past the steps recorded so far has to wait for them to be generated, so
+     * it runs on a generation thread and lands on a later pulse; playback holds still
+     * until then, and further seeks in the meantime are folded into one.
+     */
+    public void seek(long stepCount, Runnable onLanded) {
+        if (steps == null) return;
+        if (seekTask != null) {
+            queuedSeek = stepCount;
+            queuedOnLanded = onLanded;
+            return;
+        }
+
+        long start = System.nanoTime();
+        waveTimer.stop();
+
+        // Land one step early and play the last one so its highlight is shown
+        long target = Math.max(0, stepCount - 1);
+        if (target <= steps.getRecordedSteps()) {
+            if (lineProfile != null) {
+                walkLineProfile(target);
+            }
+            int replayed = steps.seek(target, currentState, sortedMarks, statistics);
+            land(stepCount, target, replayed, start);
+            onLanded.run();
+            return;
+        }
+
+        StepStream stream = steps;
+        int[] state = currentState.clone();
+        BitSet sorted = new BitSet();
+        SortingStatistics seekStatistics = new SortingStatistics(stream.getAlgorithm());
+        seekingSteps = stream;
+        seekRecordedSteps = stream.getRecordedSteps();
+        seekCheckpointBytes = stream.getCheckpointBytes();
+        seekTraceBytes = stream.getTraceBytes();
+        seekTask = BackgroundTasks.GENERATION.submit(() -> {
+            int replayed = -1;
+            try {
+                replayed = stream.seek(target, state, sorted, seekStatistics);
+            } finally {
+                int result = replayed;
+                Platform.runLater(() -> finishBackgroundSeek(stream, stepCount, target, result, state, sorted,
+                    seekStatistics, start, onLanded));
             }
         });
-        
-        timeline.play();
+    }
+
+    // Back on the JavaFX thread; replayed is negative if the seek failed, which leaves playback where it was
+    private void finishBackgroundSeek(StepStream stream, long stepCount, long target, int replayed, int[] state,
+                                      BitSet sorted, SortingStatistics seekStatistics, long start,
+                                      Runnable onLanded) {
+        seekTask = null;
+        seekingSteps = null;
+        if (stream != steps) {
+            // Replaced or stopped while the seek ran, and left open for it until now
+            stream.close();
+        } else if (replayed >= 0) {
+            System.arraycopy(state, 0, currentState, 0, currentState.length);
+            sortedMarks.clear();
+            sortedMarks.or(sorted);
+            statistics.restore(seekStatistics.snapshot());
+            // A run that ended before target stops the seek at its last step
+            long landed = Math.min(target, stream.getRecordedSteps());
+            // Too far to have walked; the counts start again where the seek landed
+            if (lineProfile != null) {
+                lineProfile.restartAt(landed);
+            }
+            land(Math.min(stepCount, landed + 1), landed, replayed, start);
+            onLanded.run();
+        } else {
+            lastFrameNanos = -1;
+        }
+        if (queuedSeek >= 0) {
+            long next = queuedSeek;
+            queuedSeek = -1;
+            seek(next, queuedOnLanded);
+        }
+    }
+
+    // Shows the state a seek restored, then plays the step it landed one short of
+    private void land(long stepCount, long target, int replayed, long start) {
+        lastSeekReplayed = replayed;
+        currentStepIndex = target - 1;
+        clearDirtyBars();
+
+        visualizer.resetAll();
+        visualizer.updateBarsFromArray(currentState);
+        // Runs of sorted marks go to the renderer as ranges
+        for (int i = sortedMarks.nextSetBit(0); i >= 0; i = sortedMarks.nextSetBit(i + 1)) {
+            int end = sortedMarks.nextClearBit(i);
+            visualizer.markSortedRange(i, end - 1);
+            i = end;
+        }
+        if (stepCount > 0 && steps.isNextReady() && steps.hasNext()) {
+            SortStep step = steps.next();
+            currentStepIndex++;
+            step.applyTo(currentState);
+            statistics.record(step);
+            if (lineProfile != null) {
+                lineProfile.record(step);
+            }
+            visualizer.updateBarsFromArray(currentState);
+            showStep(step, false, false);
+        }
+        pendingSteps = 0;
+        lastFrameNanos = -1;
+        lastSeekNanos = System.nanoTime() - start;
     }
     
-    private void executeStep(int stepIndex) {
-        if (stepIndex >= steps.size()) return;
-        
-        SortStep step = steps.get(stepIndex);
-        currentStepIndex = stepIndex;
+    /**
+     * Brings the line profile to target steps applied before a seek lands there.
+     * Trace checkpoints only restore the array and statistics, so the profile walks
+     * the steps in between from where it is or from its own nearest checkpoint,
+     * whichever is closer; after a restart it never walks back below the restart.
+     * A jump past everything played so far that is too long to walk starts the
+     * counts again at target.
+     */
+    private void walkLineProfile(long target) {
+        long applied = currentStepIndex + 1;
+        long checkpoint = lineProfile.checkpointBefore(target);
+        long walk = Math.abs(target - applied);
+        // Below a restart the counts never held those steps, so walking back would take away hits they lack
+        boolean walkable = walk <= MAX_PROFILE_WALK && target >= lineProfile.getFirstStep();
+        if (!walkable || walk > target - checkpoint) {
+            if (target - checkpoint > MAX_PROFILE_WALK) {
+                lineProfile.restartAt(target);
+                return;
+            }
+            // The array and marks are only scratch here; the seek that follows restores them
+            lineProfile.restoreCheckpoint(checkpoint);
+            steps.seek(checkpoint, currentState, sortedMarks, null);
+            applied = checkpoint;
+        }
+        if (target >= applied) {
+            for (long i = applied; i < target && steps.hasNext(); i++) {
+                lineProfile.record(steps.next());
+            }
+        } else {
+            for (long i = applied; i > target && steps.hasPrevious(); i--) {
+                lineProfile.unrecord(steps.previous());
+            }
+        }
+    }
+
+    /**
+     * Sets which way timed playback runs. Going backwards undoes each step from
+     * what it recorded, so no earlier array is ever stored. A run that has
+     * stopped at either end starts again, which lets a finished sort be rewound.
+     */
+    public void setReverse(boolean reverse) {
+        this.reverse = reverse;
+        // A step still being generated counts as one to come, rather than being waited for
+        if (steps != null && !isRunning && seekTask == null
+                && (reverse ? steps.hasPrevious() : !steps.isNextReady() || steps.hasNext())) {
+            waveTimer.stop();
+            isRunning = true;
+            isPaused = false;
+            lastFrameNanos = -1;
+            if (!sharedClock) {
+                playbackTimer.start();
+            }
+        }
+    }
+
+    public boolean isReverse() {
+        return reverse;
+    }
+
+    // One step back while paused or stopped; false at the first step
+    public boolean stepBackward() {
+        if (steps == null || isRunning() || seekTask != null || !steps.hasPrevious()) return false;
 
-        // Update the entire array state first
-        visualizer.updateBarsFromArray(step.getArrayState());
+        SortStep step = steps.previous();
+        undoStep(step);
+        render(step, true);
+        return true;
+    }
+
+    // One step on while paused or stopped; false once every step has been played
+    public boolean stepForward() {
+        if (steps == null || isRunning() || seekTask != null || !steps.isNextReady() || !steps.hasNext()) {
+            return false;
+        }
+
+        SortStep step = steps.next();
+        applyStep(step);
+        render(step, false);
+        return true;
+    }
+
+    private void finish() {
+        playbackTimer.stop();
+        isRunning = false;
+        if (onComplete != null) {
+            onComplete.run();
+        }
+    }
+    
+    // Applies a step's mutation and notes the bars it touched, without drawing anything
+    private void applyStep(SortStep step) {
+        currentStepIndex++;
+        step.applyTo(currentState);
+        statistics.record(step);
+        if (lineProfile != null) {
+            lineProfile.record(step);
+        }
+        markMutationDirty(step);
+    }
+    
+    // The inverse of applyStep, plus the sorted marks the step added
+    private void undoStep(SortStep step) {
+        currentStepIndex--;
+        step.undoFrom(currentState);
+        statistics.unrecord(step);
+        if (lineProfile != null) {
+            lineProfile.unrecord(step);
+        }
+        markMutationDirty(step);
+        int[] runs = step.getNewlySorted();
+        for (int i = 0; i < runs.length; i += 2) {
+            visualizer.unmarkSortedRange(runs[i], runs[i + 1]);
+        }
+        if (step.getType() == SortStep.StepType.COMPLETED) {
+            waveTimer.stop();
+        }
+    }
+    
+    private void markMutationDirty(SortStep step) {
+        switch (step.getMutation()) {
+            case SWAP:
+                markDirty(step.getFirst());
+                markDirty(step.getSecond());
+                break;
+            case WRITE:
+                markDirty(step.getFirst());
+                break;
+            default:
+                break;
+        }
+    }
+    
+    // What a step leaves behind once its highlight is gone: sorted marks and worker lanes
+    private void applyMarks(SortStep step) {
+        if (step.getWorker() >= 0) {
+            if (step.isRange()) {
+                visualizer.setOwnerRange(step.getRangeStart(), step.getRangeEnd(), step.getWorker());
+            } else {
+                visualizer.setOwner(step.getHighlightIndices(), step.getWorker());
+            }
+        }
+        if (step.getType() == SortStep.StepType.SORTED || step.getType() == SortStep.StepType.MERGED) {
+            markSorted(step);
+        }
+    }
+    
+    // Redraws the bars changed since the last frame, then shows the latest step
+    private void render(SortStep step, boolean undone) {
+        if (dirtyCount > dirtyBars.length) {
+            visualizer.updateBarsFromArray(currentState);
+        } else {
+            for (int i = 0; i < dirtyCount; i++) {
+                visualizer.updateBarsFromArray(currentState, dirtyBars[i], dirtyBars[i]);
+            }
+        }
+        clearDirtyBars();
+        showStep(step, true, undone);
+    }
+    
+    private void markDirty(int index) {
+        if (dirtyCount < dirtyBars.length) {
+            if (!dirtyMarks.get(index)) {
+                dirtyMarks.set(index);
+                dirtyBars[dirtyCount++] = index;
+            }
+        } else {
+            // Too many to track one by one; the whole array is diffed instead
+            dirtyCount = dirtyBars.length + 1;
+        }
+    }
+    
+    private void clearDirtyBars() {
+        dirtyMarks.clear();
+        dirtyCount = 0;
+    }
+    
+    // An undone step is highlighted where it acted, but its sorted marks stay off
+    private void showStep(SortStep step, boolean animate, boolean undone) {
+        visualizer.resetColors();
+        if (step.getWorker() >= 0) {
+            if (step.isRange()) {
+                visualizer.setOwnerRange(step.getRangeStart(), step.getRangeEnd(), step.getWorker());
+            } else {
+                visualizer.setOwner(step.getHighlightIndices(), step.getWorker());
+            }
+        }
         
         // Then apply specific highlighting based on step type
         switch (step.getType()) {
             case COMPARE:
-                visualizer.highlightBars(step.getHighlightIndices(), ColorScheme.COMPARING);
+                highlight(step, ColorScheme.COMPARING);
                 break;
                 
             case SWAP:
-                visualizer.highlightBars(step.getHighlightIndices(), ColorScheme.SWAPPING);
+                highlight(step, ColorScheme.SWAPPING);
                 break;
                 
             case SHIFT:
-                visualizer.highlightBars(step.getHighlightIndices(), ColorScheme.SHIFTING);
+                highlight(step, ColorScheme.SHIFTING);
                 break;
                 
             case MERGE_PLACE:
-                visualizer.highlightBars(step.getHighlightIndices(), ColorScheme.MERGING);
+                highlight(step, ColorScheme.MERGING);
                 break;
                 
             case PIVOT_SELECT:
-                visualizer.highlightBars(step.getHighlightIndices(), ColorScheme.PIVOT);
+                highlight(step, ColorScheme.PIVOT);
                 break;
                 
             case SORTED:
-                for (int index : step.getHighlightIndices()) {
-                    visualizer.markSorted(index);
+                if (!undone) {
+                    markSorted(step);
                 }
                 break;
                 
             case MERGED:
-                visualizer.highlightBars(step.getHighlightIndices(), ColorScheme.MERGING);
-                for (int index : step.getHighlightIndices()) {
-                    visualizer.markSorted(index);
+                highlight(step, ColorScheme.MERGING);
+                if (!undone) {
+                    markSorted(step);
                 }
                 break;
                 
             case COMPLETED:
-                createCompletionAnimation();
+                if (undone) {
+                    break;
+                }
+                visualizer.clearOwners();
+                if (animate) {
+                    createCompletionAnimation();
+                } else {
+                    visualizer.markSortedRange(0, visualizer.getBarCount() - 1);
+                }
                 break;
         }
 
@@ -103,52 +543,145 @@ class AnimationManager {
         }
     }
     
+    private void highlight(SortStep step, Color color) {
+        if (step.isRange()) {
+            visualizer.highlightRange(step.getRangeStart(), step.getRangeEnd(), color);
+        } else {
+            visualizer.highlightBars(step.getHighlightIndices(), color);
+        }
+    }
+    
+    private void markSorted(SortStep step) {
+        if (step.isRange()) {
+            visualizer.markSortedRange(step.getRangeStart(), step.getRangeEnd());
+        } else {
+            visualizer.markSorted(step.getHighlightIndices());
+        }
+    }
+    
     private void createCompletionAnimation() {
-        Timeline waveAnimation = new Timeline();
-        
-        for (int i = 0; i < visualizer.getBarCount(); i++) {
-            final int index = i;
-            KeyFrame keyFrame = new KeyFrame(
-                Duration.millis(i * 30),
-                e -> visualizer.markSorted(index)
-            );
-            waveAnimation.getKeyFrames().add(keyFrame);
+        waveIndex = 0;
+        waveStartNanos = -1;
+        waveTimer.start();
+    }
+    
+    // Sweeps the sorted colour across the bars, 30 ms per bar or 1.5 s overall for large arrays
+    private void advanceCompletionWave(long now) {
+        if (waveStartNanos < 0) {
+            waveStartNanos = now;
+        }
+        int barCount = visualizer.getBarCount();
+        double nanosPerBar = Math.min(30_000_000.0, (double) COMPLETION_WAVE_NANOS / Math.max(1, barCount));
+        int target = (int) Math.min(barCount, (now - waveStartNanos) / nanosPerBar + 1);
+        while (waveIndex < target) {
+            visualizer.markSorted(waveIndex++);
+        }
+        if (waveIndex >= barCount) {
+            waveTimer.stop();
         }
-        
-        waveAnimation.play();
     }
     
     public void pauseAnimation() {
-        if (timeline != null && !isPaused) {
-            timeline.pause();
+        if (!isRunning) return;
+
+        if (!isPaused) {
+            playbackTimer.stop();
             isPaused = true;
-        } else if (timeline != null && isPaused) {
-            timeline.play();
+        } else {
+            // Resume without counting the paused time as elapsed
+            lastFrameNanos = -1;
+            if (!sharedClock) {
+                playbackTimer.start();
+            }
             isPaused = false;
         }
     }
     
     public void stopAnimation() {
-        if (timeline != null) {
-            timeline.stop();
+        playbackTimer.stop();
+        waveTimer.stop();
+        if (steps != null) {
+            closeSteps(steps);
+            steps = null;
         }
+        queuedSeek = -1;
+        isRunning = false;
         isPaused = false;
-        currentStepIndex = 0;
+        currentStepIndex = -1;
+    }
+    
+    // A stream a seek thread is still reading is closed when that seek lands instead of under it
+    private void closeSteps(StepStream stream) {
+        if (stream == seekingSteps) {
+            seekTask.cancel(true);
+        } else {
+            stream.close();
+        }
     }
     
     public boolean isRunning() {
-        return timeline != null && timeline.getStatus() == Animation.Status.RUNNING;
+        return isRunning && !isPaused;
+    }
+
+    public boolean isSeeking() {
+        return seekTask != null;
     }
     
     public boolean isPaused() {
         return isPaused;
     }
     
-    public int getCurrentStepIndex() {
+    public long getCurrentStepIndex() {
         return currentStepIndex;
     }
     
-    public int getTotalSteps() {
-        return steps != null ? steps.size() : 0;
+    // Steps are generated lazily, so the total is only known once playback finishes
+    public long getPlayedSteps() {
+        return currentStepIndex + 1;
+    }
+    
+    // Everything that has been generated so far and can be seeked to
+    public long getRecordedSteps() {
+        if (seekTask != null && steps == seekingSteps) {
+            return seekRecordedSteps;
+        }
+        return steps != null ? steps.getRecordedSteps() : 0;
+    }
+    
+    // Work done by the steps played so far; follows seeks in both directions
+    public SortingStatistics getStatistics() {
+        return statistics;
+    }
+
+    // Counts hits per pseudocode line as steps are applied and undone; null counts nothing
+    public void setLineProfile(LineProfile lineProfile) {
+        this.lineProfile = lineProfile;
+    }
+
+    public LineProfile getLineProfile() {
+        return lineProfile;
+    }
+    
+    public long getLastSeekNanos() {
+        return lastSeekNanos;
+    }
+    
+    public int getLastSeekReplayedSteps() {
+        return lastSeekReplayed;
+    }
+    
+    // The stream is not polled while a seek thread is adding to it, as the HUD does every frame
+    public long getCheckpointBytes() {
+        if (seekTask != null && steps == seekingSteps) {
+            return seekCheckpointBytes;
+        }
+        return steps != null ? steps.getCheckpointBytes() : 0;
+    }
+    
+    public long getTraceBytes() {
+        if (seekTask != null && steps == seekingSteps) {
+            return seekTraceBytes;
+        }
+        return steps != null ? steps.getTraceBytes() : 0;
     }
 }
\ No newline at end of file
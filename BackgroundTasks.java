@@ -0,0 +1,27 @@
+package com.visualizer.sorting;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Threads for work that must stay off the JavaFX application thread. They are
+ * daemons, so a run still generating never keeps the JVM alive once the window
+ * is closed. Results go back to the UI through Platform.runLater.
+ */
+final class BackgroundTasks {
+    static final ExecutorService GENERATION = Executors.newCachedThreadPool(daemonThreads("trace-generation"));
+
+    private BackgroundTasks() {
+    }
+
+    static ThreadFactory daemonThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
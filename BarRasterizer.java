@@ -0,0 +1,169 @@
+package com.visualizer.sorting;
+
+import javafx.scene.paint.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Draws the bar layout of CanvasBarVisualizer into an indexed BufferedImage
+ * without JavaFX rendering anything, so frames can be produced with no stage.
+ * Columns, bar heights and colour rules match the canvas: a highlight wins on
+ * unsorted bars, then a worker's lane colour, then sorted or resting blue.
+ *
+ * Every colour comes from a fixed palette built from ColorScheme, so frames are
+ * filled as palette indices and need no colour quantization before encoding.
+ */
+class BarRasterizer {
+    // Kept equal to CanvasBarVisualizer's layout
+    private static final int TOP_MARGIN = 50;
+    private static final int MIN_BAR_HEIGHT = 5;
+    private static final int LABEL_SPACE = 16;
+    private static final int MAX_LABELLED_BARS = 30;
+
+    private static final List<Color> PALETTE = buildPalette();
+    private static final byte BACKGROUND = index(ColorScheme.BACKGROUND_PRIMARY);
+    private static final byte RESTING = index(Color.LIGHTBLUE);
+    private static final byte SORTED = index(ColorScheme.SORTED);
+    // GIF colour tables hold a power of two entries
+    static final int PALETTE_BITS = 32 - Integer.numberOfLeadingZeros(PALETTE.size() - 1);
+
+    private final int width;
+    private final int height;
+    private final IndexColorModel colorModel;
+
+    public BarRasterizer(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.colorModel = createColorModel();
+    }
+
+    private static List<Color> buildPalette() {
+        List<Color> colors = new ArrayList<>(List.of(
+            ColorScheme.BACKGROUND_PRIMARY, Color.LIGHTBLUE, ColorScheme.SORTED, ColorScheme.COMPARING,
+            ColorScheme.SWAPPING, ColorScheme.SHIFTING, ColorScheme.MERGING, ColorScheme.PIVOT,
+            ColorScheme.TEXT_PRIMARY));
+        colors.addAll(List.of(ColorScheme.WORKER_LANES));
+        return colors;
+    }
+
+    // Palette index of a ColorScheme colour; anything else draws as a resting bar
+    static byte index(Color color) {
+        int index = PALETTE.indexOf(color);
+        return (byte) (index < 0 ? PALETTE.indexOf(Color.LIGHTBLUE) : index);
+    }
+
+    private static IndexColorModel createColorModel() {
+        int size = 1 << PALETTE_BITS;
+        byte[] red = new byte[size];
+        byte[] green = new byte[size];
+        byte[] blue = new byte[size];
+        for (int i = 0; i < PALETTE.size(); i++) {
+            Color color = PALETTE.get(i);
+            red[i] = (byte) Math.round(color.getRed() * 255);
+            green[i] = (byte) Math.round(color.getGreen() * 255);
+            blue[i] = (byte) Math.round(color.getBlue() * 255);
+        }
+        return new IndexColorModel(8, size, red, green, blue);
+    }
+
+    public IndexColorModel getColorModel() {
+        return colorModel;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Draws one frame. highlights holds a palette index per element, or -1 for
+     * none; owners holds a worker per element, or -1, and may be null.
+     */
+    public BufferedImage render(int[] values, BitSet sorted, int[] owners, byte[] highlights) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_INDEXED, colorModel);
+        byte[] pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        Arrays.fill(pixels, BACKGROUND);
+        if (values.length == 0) {
+            return image;
+        }
+
+        int maxValue = 1;
+        for (int value : values) {
+            maxValue = Math.max(maxValue, value);
+        }
+        int maxBarHeight = height - TOP_MARGIN;
+        int columns = Math.min(values.length, width);
+        int[] labelled = values.length <= MAX_LABELLED_BARS ? new int[columns * 3] : null;
+
+        for (int column = 0; column < columns; column++) {
+            int x = (int) ((long) column * width / columns);
+            int columnWidth = (int) ((long) (column + 1) * width / columns) - x;
+
+            // Elements that share this column; the tallest one decides the height and colour
+            int from = (int) ((long) column * values.length / columns);
+            int to = (int) ((long) (column + 1) * values.length / columns);
+            int tallest = from;
+            byte highlight = -1;
+            for (int i = from; i < to; i++) {
+                if (values[i] > values[tallest]) {
+                    tallest = i;
+                }
+                if (highlights[i] >= 0 && !sorted.get(i)) {
+                    highlight = highlights[i];
+                }
+            }
+
+            byte fill = highlight;
+            if (fill < 0 && owners != null && owners[tallest] >= 0) {
+                fill = index(ColorScheme.forWorker(owners[tallest]));
+            }
+            if (fill < 0) {
+                fill = sorted.get(tallest) ? SORTED : RESTING;
+            }
+
+            int barHeight = (int) Math.max(MIN_BAR_HEIGHT, (double) values[tallest] / maxValue * maxBarHeight);
+            int gap = columnWidth >= 4 ? 1 : 0;
+            int left = x + gap;
+            int right = x + columnWidth - gap;
+            for (int y = Math.max(0, height - barHeight); y < height; y++) {
+                Arrays.fill(pixels, y * width + left, y * width + right, fill);
+            }
+            if (labelled != null) {
+                labelled[column * 3] = x + columnWidth / 2;
+                labelled[column * 3 + 1] = Math.max(LABEL_SPACE, height - barHeight - 2);
+                labelled[column * 3 + 2] = values[tallest];
+            }
+        }
+
+        if (labelled != null) {
+            drawLabels(image, labelled);
+        }
+        return image;
+    }
+
+    private void drawLabels(BufferedImage image, int[] labelled) {
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setColor(java.awt.Color.WHITE);
+            g.setFont(new Font("SansSerif", Font.BOLD, 10));
+            FontMetrics metrics = g.getFontMetrics();
+            for (int i = 0; i < labelled.length; i += 3) {
+                String label = String.valueOf(labelled[i + 2]);
+                g.drawString(label, labelled[i] - metrics.stringWidth(label) / 2, labelled[i + 1]);
+            }
+        } finally {
+            g.dispose();
+        }
+    }
+}
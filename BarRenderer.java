@@ -0,0 +1,47 @@
+package com.visualizer.sorting;
+
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+
+/**
+ * What AnimationManager and VisualizerController need from a bar display.
+ * BarVisualizer builds a node per bar; CanvasBarVisualizer paints onto one Canvas.
+ */
+interface BarRenderer {
+    Region getVisualizationPane();
+
+    void updateVisualization(int[] array);
+
+    void updateBarsFromArray(int[] array);
+
+    void updateBarsFromArray(int[] array, int first, int second);
+
+    void highlightBars(int[] indices, Color color);
+
+    // Range methods cover from..to inclusive in one call, however long the range
+    void highlightRange(int from, int to, Color color);
+
+    void resetColors();
+
+    void markSorted(int index);
+
+    void markSorted(int[] indices);
+
+    void markSortedRange(int from, int to);
+
+    // Takes the sorted colour back off, for playing backwards
+    void unmarkSortedRange(int from, int to);
+
+    void resetAll();
+
+    // Colours bars by the worker thread of a parallel run that last touched them
+    void setOwner(int[] indices, int worker);
+
+    void setOwnerRange(int from, int to, int worker);
+
+    void clearOwners();
+
+    boolean isSorted(int index);
+
+    int getBarCount();
+}
@@ -10,11 +10,22 @@ import javafx.scene.text.FontWeight;
 import javafx.scene.text.Text;
 import java.util.*;
 
-class BarVisualizer {
+/**
+ * One Rectangle node per bar. Steps change at most a couple of elements, so the
+ * displayed values, the largest of them and the highlighted bars are kept here
+ * and each update touches only the bars whose value or colour actually changes.
+ */
+class BarVisualizer implements BarRenderer {
     private HBox visualizationPane;
     private List<Rectangle> bars;
     private List<Text> valueLabels;
-    private Set<Integer> sortedIndices = new HashSet<>();
+    private final BitSet sortedIndices = new BitSet();
+    private int[] owners = new int[0];
+    private int[] values = new int[0];
+    private int[] highlighted = new int[0];
+    private int rangeFrom = 0;
+    private int rangeTo = -1;
+    private double maxValue = 1;
     
     public BarVisualizer() {
         visualizationPane = new HBox(2);
@@ -39,11 +50,14 @@ class BarVisualizer {
             return;
         }
         
-        double maxValue = Arrays.stream(array).max().getAsInt();
-        // Prevent division by zero
-        if (maxValue == 0) {
-            maxValue = 1;
-        }
+        values = array.clone();
+        maxValue = Math.max(1, max(values));
+        highlighted = new int[0];
+        rangeFrom = 0;
+        rangeTo = -1;
+        
+        owners = new int[array.length];
+        Arrays.fill(owners, -1);
         
         double barWidth = Math.max(8, Math.min(50, 800.0 / array.length));
         
@@ -67,12 +81,7 @@ class BarVisualizer {
             double barHeight = array[i] == 0 ? 5 : (array[i] / maxValue) * 350;
             bar.setHeight(Math.max(5, barHeight)); // Minimum height of 5 pixels
             
-            // Set default color - check if already marked as sorted
-            if (sortedIndices.contains(i)) {
-                bar.setFill(ColorScheme.SORTED);
-            } else {
-                bar.setFill(Color.LIGHTBLUE);
-            }
+            bar.setFill(restingColor(i));
             
             bar.setStroke(Color.DARKBLUE);
             bar.setStrokeWidth(1);
@@ -99,18 +108,73 @@ class BarVisualizer {
         
         // Then highlight the specified bars
         for (int index : indices) {
-            if (index >= 0 && index < bars.size() && !sortedIndices.contains(index)) {
+            if (index >= 0 && index < bars.size() && !sortedIndices.get(index)) {
+                bars.get(index).setFill(color);
+            }
+        }
+        highlighted = indices.clone();
+    }
+    
+    public void highlightRange(int from, int to, Color color) {
+        resetColors();
+        
+        rangeFrom = Math.max(0, from);
+        rangeTo = Math.min(bars.size() - 1, to);
+        for (int index = rangeFrom; index <= rangeTo; index++) {
+            if (!sortedIndices.get(index)) {
                 bars.get(index).setFill(color);
             }
         }
     }
     
+    // Only the previously highlighted bars can differ from their resting colour
     public void resetColors() {
-        for (int i = 0; i < bars.size(); i++) {
-            if (!sortedIndices.contains(i)) {
-                bars.get(i).setFill(Color.LIGHTBLUE);
-            } else {
-                bars.get(i).setFill(ColorScheme.SORTED);
+        for (int index : highlighted) {
+            if (index >= 0 && index < bars.size()) {
+                bars.get(index).setFill(restingColor(index));
+            }
+        }
+        highlighted = new int[0];
+        for (int index = rangeFrom; index <= rangeTo; index++) {
+            bars.get(index).setFill(restingColor(index));
+        }
+        rangeFrom = 0;
+        rangeTo = -1;
+    }
+    
+    // A worker's lane colour wins over sorted while a parallel run is in progress
+    private Color restingColor(int index) {
+        if (index < owners.length && owners[index] >= 0) {
+            return ColorScheme.forWorker(owners[index]);
+        }
+        return sortedIndices.get(index) ? ColorScheme.SORTED : Color.LIGHTBLUE;
+    }
+    
+    public void setOwner(int[] indices, int worker) {
+        for (int index : indices) {
+            if (index >= 0 && index < owners.length && owners[index] != worker) {
+                owners[index] = worker;
+                bars.get(index).setFill(restingColor(index));
+            }
+        }
+    }
+    
+    public void setOwnerRange(int from, int to, int worker) {
+        from = Math.max(0, from);
+        to = Math.min(owners.length - 1, to);
+        if (to < from) return;
+        
+        Arrays.fill(owners, from, to + 1, worker);
+        for (int index = from; index <= to; index++) {
+            bars.get(index).setFill(restingColor(index));
+        }
+    }
+    
+    public void clearOwners() {
+        for (int index = 0; index < owners.length; index++) {
+            if (owners[index] >= 0) {
+                owners[index] = -1;
+                bars.get(index).setFill(restingColor(index));
             }
         }
     }
@@ -120,34 +184,13 @@ class BarVisualizer {
             return;
         }
         
-        Rectangle bar1 = bars.get(i);
-        Rectangle bar2 = bars.get(j);
-        
-        double maxValue = Arrays.stream(array).max().getAsInt();
-        if (maxValue == 0) {
-            maxValue = 1;
-        }
-        
-        // Update bar heights
-        double height1 = array[i] == 0 ? 5 : (array[i] / maxValue) * 350;
-        double height2 = array[j] == 0 ? 5 : (array[j] / maxValue) * 350;
-        
-        bar1.setHeight(Math.max(5, height1));
-        bar2.setHeight(Math.max(5, height2));
-        
-        // Update value labels if they exist
-        if (array.length <= 30 && !valueLabels.isEmpty() && 
-            i < valueLabels.size() && j < valueLabels.size() &&
-            valueLabels.get(i) != null && valueLabels.get(j) != null) {
-            valueLabels.get(i).setText(String.valueOf(array[i]));
-            valueLabels.get(j).setText(String.valueOf(array[j]));
-        }
+        updateBarsFromArray(array, i, j);
     }
     
     public void markSorted(int index) {
-        if (index >= 0 && index < bars.size()) {
-            bars.get(index).setFill(ColorScheme.SORTED);
-            sortedIndices.add(index);
+        if (index >= 0 && index < bars.size() && !sortedIndices.get(index)) {
+            sortedIndices.set(index);
+            bars.get(index).setFill(restingColor(index));
         }
     }
     
@@ -158,44 +201,97 @@ class BarVisualizer {
             markSorted(index);
         }
     }
+    
+    public void markSortedRange(int from, int to) {
+        for (int index = Math.max(0, from); index <= to && index < bars.size(); index++) {
+            markSorted(index);
+        }
+    }
+
+    public void unmarkSortedRange(int from, int to) {
+        for (int index = Math.max(0, from); index <= to && index < bars.size(); index++) {
+            if (sortedIndices.get(index)) {
+                sortedIndices.clear(index);
+                bars.get(index).setFill(restingColor(index));
+            }
+        }
+    }
 
     public void resetAll() {
-        sortedIndices.clear();
-        for (Rectangle bar : bars) {
-            bar.setFill(Color.LIGHTBLUE);
+        resetColors();
+        for (int index = 0; index < bars.size(); index++) {
+            if (sortedIndices.get(index) || owners[index] >= 0) {
+                bars.get(index).setFill(Color.LIGHTBLUE);
+            }
         }
+        sortedIndices.clear();
+        Arrays.fill(owners, -1);
     }
     
-    // Additional utility methods for better visualization control
+    // Compares against the values on screen and only touches bars that differ
     public void updateBarsFromArray(int[] array) {
         if (array == null || array.length != bars.size()) {
             updateVisualization(array);
             return;
         }
         
-        double maxValue = Arrays.stream(array).max().getAsInt();
-        if (maxValue == 0) {
-            maxValue = 1;
-        }
-        
+        PerformanceEvents.Repaint event = new PerformanceEvents.Repaint();
+        event.begin();
+        double newMax = Math.max(1, max(array));
+        // A new scale changes every height; otherwise only the changed bars move
+        boolean rescale = newMax != maxValue;
+        maxValue = newMax;
+        int changed = 0;
         for (int i = 0; i < array.length; i++) {
-            Rectangle bar = bars.get(i);
-            double barHeight = array[i] == 0 ? 5 : (array[i] / maxValue) * 350;
-            bar.setHeight(Math.max(5, barHeight));
-            
-            // Keep the sorted color if the bar is marked as sorted
-            if (!sortedIndices.contains(i)) {
-                bar.setFill(Color.LIGHTBLUE);
-            }
-            
-            if (array.length <= 30 && i < valueLabels.size() && valueLabels.get(i) != null) {
-                valueLabels.get(i).setText(String.valueOf(array[i]));
+            if (rescale || array[i] != values[i]) {
+                updateBar(i, array[i]);
+                changed++;
             }
         }
+        event.end();
+        if (event.shouldCommit()) {
+            event.renderer = "nodes";
+            event.bars = changed;
+            event.commit();
+        }
+    }
+    
+    // Refreshes only the bars at first and second; sorting steps never change any other bar
+    public void updateBarsFromArray(int[] array, int first, int second) {
+        if (array == null || array.length != bars.size()) {
+            updateVisualization(array);
+            return;
+        }
+        // Values above the current scale need a rescale; smaller ones keep it until the next full update
+        if (array[first] > maxValue || array[second] > maxValue) {
+            updateBarsFromArray(array);
+            return;
+        }
+        
+        updateBar(first, array[first]);
+        updateBar(second, array[second]);
+    }
+    
+    private static int max(int[] array) {
+        int max = Integer.MIN_VALUE;
+        for (int value : array) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+    
+    private void updateBar(int index, int value) {
+        values[index] = value;
+        double barHeight = value == 0 ? 5 : (value / maxValue) * 350;
+        bars.get(index).setHeight(Math.max(5, barHeight));
+        
+        if (bars.size() <= 30 && index < valueLabels.size() && valueLabels.get(index) != null) {
+            valueLabels.get(index).setText(String.valueOf(value));
+        }
     }
     
     public boolean isSorted(int index) {
-        return sortedIndices.contains(index);
+        return sortedIndices.get(index);
     }
     
     public int getBarCount() {
@@ -0,0 +1,349 @@
+package com.visualizer.sorting;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.BiConsumer;
+
+/**
+ * Headless entry point for tracking algorithm performance on machines without a
+ * display. Runs SortingAlgorithms directly and never touches a JavaFX class.
+ *
+ * Usage: BenchmarkRunner [--algorithm all|bubble,merge,...] [--size 1000]
+ *                        [--distribution uniform] [--seed 42] [--repetitions 5]
+ *                        [--trace off|on] [--threads 1,2,4,N] [--format csv|json] [--output file]
+ *
+ * Parallel Merge Sort runs once per thread count, each on its own ForkJoinPool, and
+ * reports its speedup over the median time of the sequential Merge Sort.
+ */
+public class BenchmarkRunner {
+
+    private static class Result {
+        String algorithm;
+        InputDistribution distribution;
+        int size;
+        long seed;
+        int repetition;
+        boolean traced;
+        int threads;
+        double speedup;
+        long wallNanos;
+        long steps;
+        long comparisons;
+        long swaps;
+        long arrayAccesses;
+        long allocatedBytes;
+        long traceBytes;
+    }
+
+    private final SortingAlgorithms sortingAlgorithms = new SortingAlgorithms();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    private List<String> algorithms = SortingAlgorithms.ALGORITHM_NAMES;
+    private int size = 1000;
+    private InputDistribution distribution = InputDistribution.UNIFORM;
+    private long seed = 42;
+    private int repetitions = 5;
+    private boolean traced = false;
+    private int[] threadCounts = {1, 2, 4, Runtime.getRuntime().availableProcessors()};
+    private String format = "csv";
+    private String output = null;
+
+    public static void main(String[] args) {
+        BenchmarkRunner runner = new BenchmarkRunner();
+        try {
+            runner.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage(System.err);
+            System.exit(2);
+        }
+
+        List<Result> results = runner.run();
+        try {
+            runner.report(results);
+        } catch (IOException e) {
+            System.err.println("Could not write results: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void printUsage(PrintStream out) {
+        out.println("Usage: BenchmarkRunner [--algorithm all|bubble,merge,...] [--size 1000]"
+            + " [--distribution uniform|sorted|reversed|nearly-sorted|sawtooth|few-unique|gaussian|organ-pipe"
+            + "|median-of-3-killer] [--seed 42]"
+            + " [--repetitions 5] [--trace off|on] [--threads 1,2,4,N] [--format csv|json] [--output file]");
+    }
+
+    private void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--help") || option.equals("-h")) {
+                printUsage(System.out);
+                System.exit(0);
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--algorithm":
+                    algorithms = parseAlgorithms(value);
+                    break;
+                case "--size":
+                    size = Integer.parseInt(value);
+                    break;
+                case "--distribution":
+                    distribution = InputDistribution.parse(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--repetitions":
+                    repetitions = Integer.parseInt(value);
+                    break;
+                case "--trace":
+                    traced = value.equals("on");
+                    break;
+                case "--threads":
+                    threadCounts = parseThreadCounts(value);
+                    break;
+                case "--format":
+                    format = value;
+                    break;
+                case "--output":
+                    output = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + option);
+            }
+        }
+    }
+
+    // Accepts "all" or a comma-separated list of short names such as "bubble,quick"
+    static List<String> parseAlgorithms(String value) {
+        if (value.equals("all")) {
+            return SortingAlgorithms.ALGORITHM_NAMES;
+        }
+        List<String> selected = new ArrayList<>();
+        for (String requested : value.split(",")) {
+            String key = requested.trim().toLowerCase(Locale.ROOT);
+            String match = null;
+            for (String name : SortingAlgorithms.ALGORITHM_NAMES) {
+                if (shortName(name).equals(key) || name.toLowerCase(Locale.ROOT).equals(key)) {
+                    match = name;
+                }
+            }
+            if (match == null) {
+                throw new IllegalArgumentException("Unknown algorithm " + requested);
+            }
+            selected.add(match);
+        }
+        return selected;
+    }
+
+    // "N" stands for every available processor; repeated counts are run once
+    private static int[] parseThreadCounts(String value) {
+        return Arrays.stream(value.split(","))
+            .map(String::trim)
+            .mapToInt(count -> count.equalsIgnoreCase("N")
+                ? Runtime.getRuntime().availableProcessors()
+                : Integer.parseInt(count))
+            .distinct()
+            .toArray();
+    }
+
+    private static String shortName(String algorithm) {
+        return algorithm.toLowerCase(Locale.ROOT).replace(" sort", "").replace(" ", "-");
+    }
+
+    private List<Result> run() {
+        int[] input = distribution.generate(size, seed);
+        List<Result> results = new ArrayList<>();
+
+        for (String algorithm : algorithms) {
+            if (algorithm.equals("Parallel Merge Sort")) {
+                results.addAll(runParallel(input));
+                continue;
+            }
+            BiConsumer<int[], StepSink> sorter = (array, steps) -> sortingAlgorithms.sort(algorithm, array, steps);
+            for (int repetition = 0; repetition < repetitions; repetition++) {
+                results.add(runOnce(algorithm, sorter, input, repetition, 1, Collections.emptySet()));
+            }
+        }
+        return results;
+    }
+
+    private List<Result> runParallel(int[] input) {
+        // The sequential baseline is measured here, whether or not Merge Sort was asked for
+        long[] baseline = new long[repetitions];
+        for (int repetition = 0; repetition < repetitions; repetition++) {
+            baseline[repetition] = runOnce("Merge Sort",
+                (array, steps) -> sortingAlgorithms.sort("Merge Sort", array, steps), input, repetition, 1,
+                Collections.emptySet()).wallNanos;
+        }
+        Arrays.sort(baseline);
+        long baselineNanos = baseline[repetitions / 2];
+
+        List<Result> results = new ArrayList<>();
+        ParallelMergeSort parallelMergeSort = new ParallelMergeSort();
+        for (int threads : threadCounts) {
+            // Workers are started on demand, so each one notes its id for the allocation count
+            Set<Long> workerIds = ConcurrentHashMap.newKeySet();
+            ForkJoinPool pool = new ForkJoinPool(threads, forkJoinPool -> {
+                ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+                workerIds.add(worker.getId());
+                return worker;
+            }, null, false);
+            try {
+                for (int repetition = 0; repetition < repetitions; repetition++) {
+                    Result result = runOnce("Parallel Merge Sort",
+                        (array, steps) -> parallelMergeSort.sort(array, steps, pool),
+                        input, repetition, threads, workerIds);
+                    result.speedup = (double) baselineNanos / result.wallNanos;
+                    results.add(result);
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+        return results;
+    }
+
+    private Result runOnce(String algorithm, BiConsumer<int[], StepSink> sorter,
+                           int[] input, int repetition, int threads, Set<Long> workerIds) {
+        int[] array = input.clone();
+        Result result = new Result();
+        result.algorithm = algorithm;
+        result.distribution = distribution;
+        result.size = size;
+        result.seed = seed;
+        result.repetition = repetition;
+        result.traced = traced;
+        result.threads = threads;
+        result.speedup = Double.NaN;
+
+        long allocatedBefore = allocatedBytes();
+        Map<Long, Long> workersBefore = allocatedBytes(workerIds);
+        SortingStatistics statistics;
+        if (traced) {
+            SortTrace trace = new SortTrace(array);
+            statistics = trace.getStatistics();
+            statistics.startTiming();
+            sorter.accept(array, new StepSink.Recording(trace));
+            statistics.endTiming();
+            result.traceBytes = trace.getEstimatedBytes();
+        } else {
+            // Counts without building or keeping the steps
+            statistics = new SortingStatistics(algorithm);
+            statistics.startTiming();
+            sorter.accept(array, new StepSink.Counting(statistics));
+            statistics.endTiming();
+        }
+        result.allocatedBytes = allocatedBytes() - allocatedBefore + allocatedSince(workersBefore, workerIds);
+        result.wallNanos = statistics.getExecutionNanos();
+        result.steps = statistics.getSteps();
+        result.comparisons = statistics.getComparisons();
+        result.swaps = statistics.getSwaps();
+        result.arrayAccesses = statistics.getArrayAccesses();
+        return result;
+    }
+
+    // Bytes allocated by this thread so far, or -1 where the JVM cannot tell
+    private long allocatedBytes() {
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    // Bytes allocated so far by each of the given threads that is still alive
+    private Map<Long, Long> allocatedBytes(Set<Long> threadIds) {
+        Map<Long, Long> allocated = new HashMap<>();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            for (long id : threadIds) {
+                long bytes = ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(id);
+                if (bytes >= 0) {
+                    allocated.put(id, bytes);
+                }
+            }
+        }
+        return allocated;
+    }
+
+    // What the given threads allocated since before; a worker started in between counts from zero
+    private long allocatedSince(Map<Long, Long> before, Set<Long> threadIds) {
+        long total = 0;
+        for (Map.Entry<Long, Long> entry : allocatedBytes(threadIds).entrySet()) {
+            total += entry.getValue() - before.getOrDefault(entry.getKey(), 0L);
+        }
+        return total;
+    }
+
+    private void report(List<Result> results) throws IOException {
+        PrintStream out = output == null
+            ? System.out
+            : new PrintStream(Files.newOutputStream(Paths.get(output)), false, "UTF-8");
+        try {
+            if (format.equals("json")) {
+                writeJson(results, out);
+            } else {
+                writeCsv(results, out);
+            }
+        } finally {
+            out.flush();
+            if (out != System.out) {
+                out.close();
+            }
+        }
+    }
+
+    private static void writeCsv(List<Result> results, PrintStream out) {
+        out.println("algorithm,distribution,size,seed,repetition,trace,threads,wall_ns,speedup,steps,"
+            + "comparisons,swaps,array_accesses,allocated_bytes,peak_trace_bytes");
+        for (Result r : results) {
+            out.printf(Locale.ROOT, "%s,%s,%d,%d,%d,%s,%d,%d,%s,%d,%d,%d,%d,%d,%d%n",
+                r.algorithm, r.distribution.getOptionName(), r.size, r.seed, r.repetition,
+                r.traced ? "on" : "off", r.threads, r.wallNanos, formatSpeedup(r.speedup, ""), r.steps,
+                r.comparisons, r.swaps, r.arrayAccesses, r.allocatedBytes, r.traceBytes);
+        }
+    }
+
+    private static void writeJson(List<Result> results, PrintStream out) {
+        out.println("[");
+        for (int i = 0; i < results.size(); i++) {
+            Result r = results.get(i);
+            out.printf(Locale.ROOT,
+                "  {\"algorithm\": \"%s\", \"distribution\": \"%s\", \"size\": %d, \"seed\": %d, "
+                    + "\"repetition\": %d, \"trace\": %b, \"threads\": %d, \"wallNanos\": %d, "
+                    + "\"speedup\": %s, \"steps\": %d, "
+                    + "\"comparisons\": %d, \"swaps\": %d, \"arrayAccesses\": %d, "
+                    + "\"allocatedBytes\": %d, \"peakTraceBytes\": %d}%s%n",
+                r.algorithm, r.distribution.getOptionName(), r.size, r.seed,
+                r.repetition, r.traced, r.threads, r.wallNanos, formatSpeedup(r.speedup, "null"), r.steps,
+                r.comparisons, r.swaps, r.arrayAccesses,
+                r.allocatedBytes, r.traceBytes,
+                i < results.size() - 1 ? "," : "");
+        }
+        out.println("]");
+    }
+
+    // Only parallel runs have a speedup; the others print missing instead
+    private static String formatSpeedup(double speedup, String missing) {
+        return Double.isNaN(speedup) ? missing : String.format(Locale.ROOT, "%.3f", speedup);
+    }
+}
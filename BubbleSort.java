@@ -0,0 +1,72 @@
+package com.visualizer.sorting;
+
+import java.util.List;
+
+import com.visualizer.sorting.SortStep.StepType;
+
+public class BubbleSort implements SortAlgorithm {
+
+    @Override
+    public String getName() {
+        return "Bubble Sort";
+    }
+
+    @Override
+    public void sort(int[] array, StepSink steps) {
+        int n = array.length;
+
+        for (int i = 0; i < n - 1; i++) {
+            boolean swapped = false;
+
+            for (int j = 0; j < n - i - 1; j++) {
+                steps.highlight(StepType.COMPARE, j, j + 1, StepTemplate.COMPARING, array[j], array[j + 1]);
+
+                if (array[j] > array[j + 1]) {
+                    int temp = array[j];
+                    array[j] = array[j + 1];
+                    array[j + 1] = temp;
+                    swapped = true;
+
+                    steps.swap(StepType.SWAP, j, j + 1, StepTemplate.SWAPPED, array[j + 1], array[j]);
+                }
+            }
+
+            steps.highlight(StepType.SORTED, n - i - 1, -1, StepTemplate.ELEMENT_SORTED, n - i - 1, 0);
+
+            if (!swapped) break;
+        }
+
+        for (int i = 0; i < n; i++) {
+            steps.highlight(StepType.SORTED, i, -1, StepTemplate.POSITION_CONFIRMED, i, 0);
+        }
+
+        steps.highlight(StepType.COMPLETED, -1, -1, StepTemplate.BUBBLE_COMPLETED, 0, 0);
+    }
+
+    @Override
+    public List<String> getCode() {
+        return List.of(
+            "function bubbleSort(array):",
+            "  n = array.length",
+            "  for i = 0 to n-2:",
+            "    swapped = false",
+            "    for j = 0 to n-i-2:",
+            "      if array[j] > array[j+1]:",
+            "        swap(array[j], array[j+1])",
+            "        swapped = true",
+            "    if not swapped:",
+            "      break",
+            "  return array"
+        );
+    }
+
+    @Override
+    public int getCodeLine(SortStep step) {
+        switch (step.getType()) {
+            case COMPARE: return 5;
+            case SWAP: return 6;
+            case SORTED: return 9;
+            default: return 2;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.visualizer.sorting;
+
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Draws every bar onto a single Canvas, so the scene graph stays the same size
+ * whatever the array length. The canvas is split into columns: one per element
+ * while they fit, otherwise one per pixel showing the tallest element in it.
+ * Changes repaint only the columns they touch.
+ */
+class CanvasBarVisualizer implements BarRenderer {
+    // Room left above the tallest bar for its value label
+    private static final double TOP_MARGIN = 50;
+    private static final double MIN_BAR_HEIGHT = 5;
+    private static final double LABEL_SPACE = 16;
+
+    private final Pane visualizationPane;
+    private final Canvas canvas;
+    private final GraphicsContext gc;
+    // Follows the canvas height, which tracks the pane; set on every full repaint
+    private double maxBarHeight;
+
+    private int[] values = new int[0];
+    private Color[] highlightColors = new Color[0];
+    private int[] highlighted = new int[0];
+    // A range highlight is kept as its bounds and resolved per column when painting
+    private int rangeFrom = 0;
+    private int rangeTo = -1;
+    private Color rangeColor;
+    private final BitSet sortedIndices = new BitSet();
+    private int[] owners = new int[0];
+    private double maxValue = 1;
+    private int columnCount = 0;
+
+    public CanvasBarVisualizer() {
+        this(900, 400);
+    }
+
+    public CanvasBarVisualizer(double width, double height) {
+        canvas = new Canvas(width, height);
+        gc = canvas.getGraphicsContext2D();
+
+        visualizationPane = new Pane(canvas);
+        visualizationPane.setPrefSize(width, height);
+        visualizationPane.setMinSize(Math.min(200, width), height);
+        visualizationPane.setStyle("-fx-background-color: rgba(255, 255, 255, 0.05); -fx-background-radius: 10;");
+
+        canvas.widthProperty().bind(visualizationPane.widthProperty());
+        canvas.heightProperty().bind(visualizationPane.heightProperty());
+        canvas.widthProperty().addListener((obs, oldVal, newVal) -> repaintAll());
+        canvas.heightProperty().addListener((obs, oldVal, newVal) -> repaintAll());
+    }
+
+    public Pane getVisualizationPane() {
+        return visualizationPane;
+    }
+
+    public void updateVisualization(int[] array) {
+        if (array == null) {
+            array = new int[0];
+        }
+        values = array.clone();
+        highlightColors = new Color[values.length];
+        highlighted = new int[0];
+        owners = new int[values.length];
+        Arrays.fill(owners, -1);
+        maxValue = Math.max(1, Arrays.stream(values).max().orElse(1));
+        repaintAll();
+    }
+
+    public void updateBarsFromArray(int[] array) {
+        if (array == null || array.length != values.length) {
+            updateVisualization(array);
+            return;
+        }
+        System.arraycopy(array, 0, values, 0, array.length);
+        maxValue = Math.max(1, Arrays.stream(values).max().orElse(1));
+        repaintAll();
+    }
+
+    public void updateBarsFromArray(int[] array, int first, int second) {
+        if (array == null || array.length != values.length
+                || array[first] > maxValue || array[second] > maxValue) {
+            updateBarsFromArray(array);
+            return;
+        }
+        values[first] = array[first];
+        values[second] = array[second];
+        repaintColumnOf(first);
+        repaintColumnOf(second);
+    }
+
+    public void highlightBars(int[] indices, Color color) {
+        if (indices == null) return;
+
+        resetColors();
+        for (int index : indices) {
+            if (index >= 0 && index < values.length && !sortedIndices.get(index)) {
+                highlightColors[index] = color;
+            }
+        }
+        highlighted = indices.clone();
+        for (int index : highlighted) {
+            repaintColumnOf(index);
+        }
+    }
+
+    public void highlightRange(int from, int to, Color color) {
+        resetColors();
+        rangeFrom = Math.max(0, from);
+        rangeTo = Math.min(values.length - 1, to);
+        rangeColor = color;
+        repaintColumns(rangeFrom, rangeTo);
+    }
+
+    // Only the previously highlighted bars can differ from their resting colour
+    public void resetColors() {
+        int[] previous = highlighted;
+        highlighted = new int[0];
+        for (int index : previous) {
+            if (index >= 0 && index < values.length) {
+                highlightColors[index] = null;
+                repaintColumnOf(index);
+            }
+        }
+        if (rangeTo >= rangeFrom) {
+            int from = rangeFrom;
+            int to = rangeTo;
+            rangeFrom = 0;
+            rangeTo = -1;
+            repaintColumns(from, to);
+        }
+    }
+
+    public void markSorted(int index) {
+        if (index >= 0 && index < values.length) {
+            sortedIndices.set(index);
+            highlightColors[index] = null;
+            repaintColumnOf(index);
+        }
+    }
+
+    public void markSorted(int[] indices) {
+        if (indices == null) return;
+
+        for (int index : indices) {
+            markSorted(index);
+        }
+    }
+
+    public void markSortedRange(int from, int to) {
+        from = Math.max(0, from);
+        to = Math.min(values.length - 1, to);
+        if (to < from) return;
+
+        sortedIndices.set(from, to + 1);
+        for (int index : highlighted) {
+            if (index >= from && index <= to) {
+                highlightColors[index] = null;
+            }
+        }
+        repaintColumns(from, to);
+    }
+
+    public void unmarkSortedRange(int from, int to) {
+        from = Math.max(0, from);
+        to = Math.min(values.length - 1, to);
+        if (to < from) return;
+
+        sortedIndices.clear(from, to + 1);
+        repaintColumns(from, to);
+    }
+
+    public void resetAll() {
+        sortedIndices.clear();
+        Arrays.fill(highlightColors, null);
+        Arrays.fill(owners, -1);
+        highlighted = new int[0];
+        rangeFrom = 0;
+        rangeTo = -1;
+        repaintAll();
+    }
+
+    public void setOwner(int[] indices, int worker) {
+        for (int index : indices) {
+            if (index >= 0 && index < values.length && owners[index] != worker) {
+                owners[index] = worker;
+                repaintColumnOf(index);
+            }
+        }
+    }
+
+    public void setOwnerRange(int from, int to, int worker) {
+        from = Math.max(0, from);
+        to = Math.min(values.length - 1, to);
+        if (to < from) return;
+
+        Arrays.fill(owners, from, to + 1, worker);
+        repaintColumns(from, to);
+    }
+
+    public void clearOwners() {
+        Arrays.fill(owners, -1);
+        repaintAll();
+    }
+
+    public boolean isSorted(int index) {
+        return sortedIndices.get(index);
+    }
+
+    public int getBarCount() {
+        return values.length;
+    }
+
+    private void repaintAll() {
+        PerformanceEvents.Repaint event = new PerformanceEvents.Repaint();
+        event.begin();
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        maxBarHeight = Math.max(MIN_BAR_HEIGHT, canvas.getHeight() - TOP_MARGIN);
+        columnCount = (int) Math.min(values.length, Math.floor(canvas.getWidth()));
+        for (int column = 0; column < columnCount; column++) {
+            repaintColumn(column);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.renderer = "canvas";
+            event.bars = values.length;
+            event.commit();
+        }
+    }
+
+    private void repaintColumnOf(int index) {
+        if (columnCount == 0) return;
+
+        repaintColumn((int) ((long) index * columnCount / values.length));
+    }
+
+    // Repaints each column holding an element in from..to once
+    private void repaintColumns(int from, int to) {
+        if (columnCount == 0 || to < from) return;
+
+        int first = (int) ((long) from * columnCount / values.length);
+        int last = (int) ((long) to * columnCount / values.length);
+        for (int column = first; column <= last; column++) {
+            repaintColumn(column);
+        }
+    }
+
+    private void repaintColumn(int column) {
+        double x = Math.floor(column * canvas.getWidth() / columnCount);
+        double columnWidth = Math.floor((column + 1) * canvas.getWidth() / columnCount) - x;
+        double baseline = canvas.getHeight();
+
+        // Elements that share this column; the tallest one decides the height and colour
+        int from = (int) ((long) column * values.length / columnCount);
+        int to = (int) ((long) (column + 1) * values.length / columnCount);
+        int tallest = from;
+        Color highlight = null;
+        for (int i = from; i < to; i++) {
+            if (values[i] > values[tallest]) {
+                tallest = i;
+            }
+            if (highlightColors[i] != null) {
+                highlight = highlightColors[i];
+            } else if (highlight == null && i >= rangeFrom && i <= rangeTo && !sortedIndices.get(i)) {
+                highlight = rangeColor;
+            }
+        }
+
+        Color fill = highlight;
+        if (fill == null && owners[tallest] >= 0) {
+            fill = ColorScheme.forWorker(owners[tallest]);
+        }
+        if (fill == null) {
+            fill = sortedIndices.get(tallest) ? ColorScheme.SORTED : Color.LIGHTBLUE;
+        }
+
+        double value = values[tallest];
+        double barHeight = Math.max(MIN_BAR_HEIGHT, (value / maxValue) * maxBarHeight);
+        double gap = columnWidth >= 4 ? 1 : 0;
+
+        gc.clearRect(x, 0, columnWidth, baseline);
+        gc.setFill(fill);
+        gc.fillRect(x + gap, baseline - barHeight, columnWidth - 2 * gap, barHeight);
+
+        if (values.length <= 30) {
+            gc.setFill(Color.WHITE);
+            gc.setFont(Font.font("Arial", FontWeight.BOLD, 10));
+            gc.setTextAlign(TextAlignment.CENTER);
+            gc.setTextBaseline(VPos.BOTTOM);
+            gc.fillText(String.valueOf(values[tallest]), x + columnWidth / 2,
+                    Math.max(LABEL_SPACE, baseline - barHeight - 2));
+        }
+    }
+}
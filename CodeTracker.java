@@ -10,16 +10,29 @@ import javafx.scene.text.FontWeight;
 import java.util.*;
 
 public class CodeTracker {
+    // Heat is shown in ten shades; style strings are built once, as setStyle reparses whatever it is given
+    private static final int HEAT_LEVELS = 10;
+    private static final String[] HEAT_STYLES = heatStyles();
     private VBox codePanel;
     private Map<String, List<String>> algorithmCodes;
     private List<Label> codeLabels;
+    // Per line, beside codeLabels: the row behind it, shaded by heat, and its hit count
+    private List<HBox> codeRows;
+    private List<Label> hitLabels;
+    private Label heatSummary;
+    // What each row shows now, so a frame only touches rows whose shade or numbers changed
+    private int[] rowHeat = new int[0];
+    private long[] rowHits = new long[0];
+    private long[] rowPermille = new long[0];
+    private long shownTotal = -1;
+    private long shownFirstStep = -1;
     private String currentAlgorithm;
     private int currentLineIndex = -1;
     
     public CodeTracker() {
         initializeCodePanel();
         initializeAlgorithmCodes();
-        loadAlgorithmCode("Bubble Sort");
+        loadAlgorithmCode(SortingAlgorithms.ALGORITHM_NAMES.get(0));
     }
 
     private void initializeCodePanel() {
@@ -50,90 +63,21 @@ public class CodeTracker {
         VBox codeContainer = new VBox(1);
         codeContainer.setPadding(new Insets(10));
         codeLabels = new ArrayList<>();
+        codeRows = new ArrayList<>();
+        hitLabels = new ArrayList<>();
         scrollPane.setContent(codeContainer);
+
+        heatSummary = new Label();
+        heatSummary.setTextFill(Color.LIGHTGRAY);
+        heatSummary.setFont(Font.font("Arial", 11));
         
-        codePanel.getChildren().addAll(title, scrollPane);
+        codePanel.getChildren().addAll(title, scrollPane, heatSummary);
     }
     private void initializeAlgorithmCodes() {
         algorithmCodes = new HashMap<>();
-
-        algorithmCodes.put("Bubble Sort", Arrays.asList(
-            "function bubbleSort(array):",
-            "  n = array.length",
-            "  for i = 0 to n-2:",
-            "    swapped = false",
-            "    for j = 0 to n-i-2:",
-            "      if array[j] > array[j+1]:",
-            "        swap(array[j], array[j+1])",
-            "        swapped = true",
-            "    if not swapped:",
-            "      break",
-            "  return array"
-        ));
-
-        algorithmCodes.put("Selection Sort", Arrays.asList(
-            "function selectionSort(array):",
-            "  n = array.length",
-            "  for i = 0 to n-2:",
-            "    minIndex = i",
-            "    for j = i+1 to n-1:",
-            "      if array[j] < array[minIndex]:",
-            "        minIndex = j",
-            "    swap(array[i], array[minIndex])",
-            "  return array"
-        ));
-
-        algorithmCodes.put("Insertion Sort", Arrays.asList(
-            "function insertionSort(array):",
-            "  for i = 1 to n-1:",
-            "    key = array[i]",
-            "    j = i - 1",
-            "    while j >= 0 and array[j] > key:",
-            "      array[j+1] = array[j]",
-            "      j = j - 1",
-            "    array[j+1] = key",
-            "  return array"
-        ));
-
-        algorithmCodes.put("Merge Sort", Arrays.asList(
-            "function mergeSort(array, left, right):",
-            "  if left < right:",
-            "    mid = (left + right) / 2",
-            "    mergeSort(array, left, mid)",
-            "    mergeSort(array, mid+1, right)",
-            "    merge(array, left, mid, right)",
-            "",
-            "function merge(array, left, mid, right):",
-            "  create leftArray and rightArray",
-            "  i = 0, j = 0, k = left",
-            "  while i < leftSize and j < rightSize:",
-            "    if leftArray[i] <= rightArray[j]:",
-            "      array[k] = leftArray[i]",
-            "      i++",
-            "    else:",
-            "      array[k] = rightArray[j]",
-            "      j++",
-            "    k++",
-            "  copy remaining elements"
-        ));
-
-        algorithmCodes.put("Quick Sort", Arrays.asList(
-            "function quickSort(array, low, high):",
-            "  if low < high:",
-            "    pivotIndex = partition(array, low, high)",
-            "    quickSort(array, low, pivotIndex-1)",
-            "    quickSort(array, pivotIndex+1, high)",
-            "",
-            "function partition(array, low, high):",
-            "  pivot = array[high]",
-            "  i = low - 1",
-            "  for j = low to high-1:",
-            "    if array[j] < pivot:",
-            "      i++",
-            "      swap(array[i], array[j])",
-            "  swap(array[i+1], array[high])",
-            "  return i+1"
-        ));
+        for (String algorithm : SortingAlgorithms.ALGORITHM_NAMES) {
+            algorithmCodes.put(algorithm, SortingAlgorithms.get(algorithm).getCode());
+        }
     }
 
     public void loadAlgorithmCode(String algorithm) {
@@ -144,15 +88,98 @@ public class CodeTracker {
         VBox codeContainer = (VBox) scrollPane.getContent();
         codeContainer.getChildren().clear();
         codeLabels.clear();
+        codeRows.clear();
+        hitLabels.clear();
+        heatSummary.setText("");
         
         List<String> lines = algorithmCodes.get(algorithm);
         if (lines != null) {
             for (int i = 0; i < lines.size(); i++) {
                 Label lineLabel = createCodeLineLabel(lines.get(i), i);
+                HBox.setHgrow(lineLabel, Priority.ALWAYS);
+                Label hitLabel = new Label();
+                hitLabel.setTextFill(Color.LIGHTGRAY);
+                hitLabel.setFont(Font.font("Consolas", 10));
+                hitLabel.setMinWidth(Region.USE_PREF_SIZE);
+                HBox row = new HBox(4, lineLabel, hitLabel);
+                row.setAlignment(Pos.CENTER_LEFT);
+                row.setStyle("-fx-background-radius: 3;");
                 codeLabels.add(lineLabel);
-                codeContainer.getChildren().add(lineLabel);
+                hitLabels.add(hitLabel);
+                codeRows.add(row);
+                codeContainer.getChildren().add(row);
             }
         }
+        int lineCount = codeRows.size();
+        rowHeat = new int[lineCount];
+        rowHits = new long[lineCount];
+        rowPermille = new long[lineCount];
+        shownTotal = -1;
+    }
+
+    private static String[] heatStyles() {
+        String[] styles = new String[HEAT_LEVELS + 1];
+        styles[0] = "-fx-background-radius: 3;";
+        for (int level = 1; level <= HEAT_LEVELS; level++) {
+            styles[level] = String.format(Locale.ROOT,
+                "-fx-background-color: rgba(209, 154, 102, %.2f); -fx-background-radius: 3;",
+                0.1 + 0.5 * level / HEAT_LEVELS);
+        }
+        return styles;
+    }
+
+    /**
+     * Shades every line by its share of the hits in profile, hottest line darkest,
+     * and shows its count and percentage beside it. Called on every frame drawn, so
+     * a row is only restyled when its shade changes and relabelled when its count
+     * or its percentage, to a tenth, does.
+     */
+    public void updateHeatMap(LineProfile profile) {
+        if (profile == null || profile.getLineCount() != codeRows.size()) {
+            clearHeatMap();
+            return;
+        }
+        long total = profile.getTotal();
+        long max = profile.getMaxHits();
+        for (int i = 0; i < codeRows.size(); i++) {
+            long hits = profile.getHits(i);
+            int heat = hits == 0 ? 0 : (int) Math.max(1, (hits * HEAT_LEVELS + max - 1) / max);
+            if (heat != rowHeat[i]) {
+                rowHeat[i] = heat;
+                codeRows.get(i).setStyle(HEAT_STYLES[heat]);
+            }
+            long permille = hits == 0 ? 0 : (hits * 1000 + total / 2) / total;
+            if (hits != rowHits[i] || permille != rowPermille[i]) {
+                rowHits[i] = hits;
+                rowPermille[i] = permille;
+                hitLabels.get(i).setText(hits == 0 ? "" : String.format("%,d · %.1f%%", hits, permille / 10.0));
+            }
+        }
+        if (total != shownTotal || profile.getFirstStep() != shownFirstStep) {
+            shownTotal = total;
+            shownFirstStep = profile.getFirstStep();
+            heatSummary.setText(profile.getFirstStep() > 0
+                ? String.format("🔥 %,d line hits since step %,d", total, profile.getFirstStep())
+                : String.format("🔥 %,d line hits", total));
+        }
+    }
+
+    public void clearHeatMap() {
+        for (int i = 0; i < codeRows.size(); i++) {
+            if (rowHeat[i] != 0) {
+                rowHeat[i] = 0;
+                codeRows.get(i).setStyle(HEAT_STYLES[0]);
+            }
+            if (rowHits[i] != 0) {
+                rowHits[i] = 0;
+                rowPermille[i] = 0;
+                hitLabels.get(i).setText("");
+            }
+        }
+        if (shownTotal != -1) {
+            shownTotal = -1;
+            heatSummary.setText("");
+        }
     }
     private Label createCodeLineLabel(String codeLine, int lineNumber) {
         String formattedLine = String.format("%2d │ %s", lineNumber + 1, codeLine);
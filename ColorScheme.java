@@ -14,6 +14,18 @@ class ColorScheme {
     public static final Color MERGING = Color.rgb(30, 144, 255);       // Dodger Blue
     public static final Color SHIFTING = Color.rgb(255, 182, 193);     // Light Pink
 
+    // Lane colours for the worker threads of a parallel run
+    public static final Color[] WORKER_LANES = {
+        Color.rgb(241, 196, 15),   // Sunflower
+        Color.rgb(155, 89, 182),   // Amethyst
+        Color.rgb(26, 188, 156),   // Turquoise
+        Color.rgb(230, 126, 34),   // Carrot
+        Color.rgb(236, 112, 160),  // Rose
+        Color.rgb(52, 152, 219),   // Peter River
+        Color.rgb(149, 165, 166),  // Concrete
+        Color.rgb(211, 84, 0)      // Pumpkin
+    };
+
     public static final Color COMPLETION_START = Color.rgb(50, 205, 50);    // Lime Green
     public static final Color COMPLETION_END = Color.rgb(34, 139, 34);      // Forest Green
 
@@ -24,6 +36,10 @@ class ColorScheme {
     public static final Color TEXT_PRIMARY = Color.WHITE;
     public static final Color TEXT_SECONDARY = Color.rgb(220, 220, 220);
     
+    public static Color forWorker(int worker) {
+        return WORKER_LANES[worker % WORKER_LANES.length];
+    }
+    
     public static Color interpolateColor(Color start, Color end, double ratio) {
         double red = start.getRed() + (end.getRed() - start.getRed()) * ratio;
         double green = start.getGreen() + (end.getGreen() - start.getGreen()) * ratio;
@@ -0,0 +1,307 @@
+package com.visualizer.sorting;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Measures how each algorithm's cost grows with n. Every algorithm runs headlessly
+ * at doubling sizes, counting comparisons and swaps and timing each run, and the
+ * counts are fitted against n, n log n and n^2. A log-log regression also gives
+ * the growth exponent directly, with a 95% interval.
+ *
+ * Algorithms run in parallel, one per core, and each stops doubling once a run
+ * takes longer than the time budget, so the quadratic sorts give up long before
+ * 1M elements while the n log n ones reach it.
+ *
+ * Usage: ComplexityAnalyzer [--max-size 1048576] [--budget-ms 2000]
+ */
+public class ComplexityAnalyzer {
+    static final int MIN_SIZE = 256;
+    private static final int WARMUP_SIZE = 2048;
+    private static final long WARMUP_NANOS = 500_000_000L;
+    // Sizes repeat until this much time is measured, so short runs take a median and long ones run once
+    private static final long MIN_MEASURED_NANOS = 50_000_000L;
+    private static final int MAX_REPETITIONS = 101;
+    private static final long SEED = 42;
+
+    /** One algorithm at one size; nanos is the median of the repetitions. */
+    static class Measurement {
+        final int size;
+        final long comparisons;
+        final long swaps;
+        final long nanos;
+
+        Measurement(int size, long comparisons, long swaps, long nanos) {
+            this.size = size;
+            this.comparisons = comparisons;
+            this.swaps = swaps;
+            this.nanos = nanos;
+        }
+    }
+
+    /** How well c * model(n) fits the measured counts. */
+    static class ModelFit {
+        final String model;
+        final double coefficient;
+        final double rSquared;
+        private final DoubleUnaryOperator growth;
+
+        ModelFit(String model, double coefficient, double rSquared, DoubleUnaryOperator growth) {
+            this.model = model;
+            this.coefficient = coefficient;
+            this.rSquared = rSquared;
+            this.growth = growth;
+        }
+
+        // The fitted cost at n, c * model(n)
+        public double predict(double n) {
+            return coefficient * growth.applyAsDouble(n);
+        }
+    }
+
+    /** Slope of log(cost) against log(n), with the half-width of its 95% interval. */
+    static class Exponent {
+        final double value;
+        final double interval;
+        final double rSquared;
+
+        Exponent(double value, double interval, double rSquared) {
+            this.value = value;
+            this.interval = interval;
+            this.rSquared = rSquared;
+        }
+
+        @Override
+        public String toString() {
+            return Double.isNaN(value) ? "-" : String.format(Locale.ROOT, "%.2f ± %.2f", value, interval);
+        }
+    }
+
+    static class Analysis {
+        final String algorithm;
+        final List<Measurement> measurements;
+        final List<ModelFit> fits;
+        final Exponent comparisonExponent;
+        final Exponent timeExponent;
+
+        Analysis(String algorithm, List<Measurement> measurements) {
+            this.algorithm = algorithm;
+            this.measurements = measurements;
+            double[] sizes = measurements.stream().mapToDouble(m -> m.size).toArray();
+            // Comparisons, unlike time, do not depend on the machine
+            double[] comparisons = measurements.stream().mapToDouble(m -> m.comparisons).toArray();
+            double[] nanos = measurements.stream().mapToDouble(m -> m.nanos).toArray();
+            this.fits = List.of(
+                fit("n", sizes, comparisons, n -> n),
+                fit("n log n", sizes, comparisons, n -> n * Math.log(n) / Math.log(2)),
+                fit("n^2", sizes, comparisons, n -> n * n));
+            this.comparisonExponent = exponent(sizes, comparisons);
+            // Short runs are dominated by fixed costs and compilation, so time is fitted on the larger half
+            int from = sizes.length / 2;
+            this.timeExponent = exponent(Arrays.copyOfRange(sizes, from, sizes.length),
+                Arrays.copyOfRange(nanos, from, nanos.length));
+        }
+
+        public int getLargestSize() {
+            return measurements.get(measurements.size() - 1).size;
+        }
+
+        public ModelFit getBestFit() {
+            ModelFit best = fits.get(0);
+            for (ModelFit fit : fits) {
+                if (fit.rSquared > best.rSquared) {
+                    best = fit;
+                }
+            }
+            return best;
+        }
+    }
+
+    private final SortingAlgorithms sortingAlgorithms = new SortingAlgorithms();
+    private final int maxSize;
+    private final long budgetNanos;
+
+    public ComplexityAnalyzer(int maxSize, long budgetNanos) {
+        this.maxSize = maxSize;
+        this.budgetNanos = budgetNanos;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int maxSize = 1 << 20;
+        long budgetMillis = 2000;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--max-size":
+                    maxSize = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--budget-ms":
+                    budgetMillis = Long.parseLong(args[i + 1]);
+                    break;
+                default:
+                    System.err.println("Usage: ComplexityAnalyzer [--max-size 1048576] [--budget-ms 2000]");
+                    System.exit(2);
+            }
+        }
+
+        ComplexityAnalyzer analyzer = new ComplexityAnalyzer(maxSize, budgetMillis * 1_000_000);
+        System.out.println("algorithm,largest_n,best_fit,r_squared,comparison_exponent,comparison_interval,"
+            + "time_exponent,time_interval");
+        for (Analysis analysis : analyzer.analyze(SortingAlgorithms.ALGORITHM_NAMES).values()) {
+            ModelFit best = analysis.getBestFit();
+            System.out.printf(Locale.ROOT, "%s,%d,%s,%.4f,%.3f,%.3f,%.3f,%.3f%n", analysis.algorithm,
+                analysis.getLargestSize(), best.model, best.rSquared,
+                analysis.comparisonExponent.value, analysis.comparisonExponent.interval,
+                analysis.timeExponent.value, analysis.timeExponent.interval);
+        }
+    }
+
+    /**
+     * Analyses every algorithm, each on its own thread, and returns the results in
+     * the order given. Blocks until all of them finish.
+     */
+    public Map<String, Analysis> analyze(List<String> algorithms) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(
+            Math.min(algorithms.size(), Runtime.getRuntime().availableProcessors()),
+            BackgroundTasks.daemonThreads("complexity"));
+        try {
+            Map<String, Future<Analysis>> futures = new LinkedHashMap<>();
+            for (String algorithm : algorithms) {
+                futures.put(algorithm, pool.submit(() -> analyze(algorithm)));
+            }
+            Map<String, Analysis> results = new LinkedHashMap<>();
+            for (Map.Entry<String, Future<Analysis>> entry : futures.entrySet()) {
+                try {
+                    results.put(entry.getKey(), entry.getValue().get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Analysis of " + entry.getKey() + " failed", e.getCause());
+                }
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Analysis analyze(String algorithm) {
+        BiConsumer<int[], StepSink> sorter = (array, steps) -> sortingAlgorithms.sort(algorithm, array, steps);
+
+        // Runs for long enough that the JIT has compiled the sort and the step path before anything is timed
+        int[] warmup = permutation(WARMUP_SIZE);
+        long warmupStart = System.nanoTime();
+        while (System.nanoTime() - warmupStart < WARMUP_NANOS) {
+            sorter.accept(warmup.clone(), new StepSink.Counting(new SortingStatistics(algorithm)));
+        }
+
+        List<Measurement> measurements = new ArrayList<>();
+        for (int size = MIN_SIZE; size <= maxSize; size *= 2) {
+            Measurement measurement = measure(algorithm, sorter, size);
+            measurements.add(measurement);
+            if (measurement.nanos > budgetNanos || Thread.currentThread().isInterrupted()) {
+                break;
+            }
+        }
+        return new Analysis(algorithm, measurements);
+    }
+
+    private Measurement measure(String algorithm, BiConsumer<int[], StepSink> sorter, int size) {
+        int[] input = permutation(size);
+        // One untimed run at each size, so code paths only large inputs reach are compiled too
+        sorter.accept(input.clone(), new StepSink.Counting(new SortingStatistics(algorithm)));
+        long[] nanos = new long[MAX_REPETITIONS];
+        long measured = 0;
+        int repetitions = 0;
+        SortingStatistics statistics = null;
+        while (repetitions < MAX_REPETITIONS && measured < MIN_MEASURED_NANOS) {
+            statistics = new SortingStatistics(algorithm);
+            statistics.startTiming();
+            sorter.accept(input.clone(), new StepSink.Counting(statistics));
+            statistics.endTiming();
+            nanos[repetitions++] = statistics.getExecutionNanos();
+            measured += statistics.getExecutionNanos();
+        }
+        nanos = Arrays.copyOf(nanos, repetitions);
+        Arrays.sort(nanos);
+        return new Measurement(size, statistics.getComparisons(), statistics.getSwaps(), nanos[nanos.length / 2]);
+    }
+
+    /**
+     * A shuffled 0..n-1. InputDistribution keeps values in the visualizer's range,
+     * which for large n means mostly duplicates, and Quick Sort's partition goes
+     * quadratic on those; distinct values measure the algorithm, not the input.
+     */
+    private static int[] permutation(int size) {
+        int[] array = new int[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = i;
+        }
+        InputDistribution.shuffle(array, SEED);
+        return array;
+    }
+
+    // Least squares through the origin: c = sum(f * y) / sum(f * f)
+    static ModelFit fit(String model, double[] sizes, double[] costs, DoubleUnaryOperator growth) {
+        double fy = 0;
+        double ff = 0;
+        double mean = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            double f = growth.applyAsDouble(sizes[i]);
+            fy += f * costs[i];
+            ff += f * f;
+            mean += costs[i] / sizes.length;
+        }
+        double coefficient = ff == 0 ? 0 : fy / ff;
+        double residual = 0;
+        double total = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            double error = costs[i] - coefficient * growth.applyAsDouble(sizes[i]);
+            residual += error * error;
+            total += (costs[i] - mean) * (costs[i] - mean);
+        }
+        return new ModelFit(model, coefficient, total == 0 ? 1 : 1 - residual / total, growth);
+    }
+
+    // Ordinary least squares on (log n, log cost); the interval uses t ≈ 2 for the few points there are
+    static Exponent exponent(double[] sizes, double[] costs) {
+        int count = 0;
+        double sumX = 0;
+        double sumY = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            if (costs[i] > 0) {
+                sumX += Math.log(sizes[i]);
+                sumY += Math.log(costs[i]);
+                count++;
+            }
+        }
+        if (count < 3) {
+            return new Exponent(Double.NaN, Double.NaN, Double.NaN);
+        }
+        double meanX = sumX / count;
+        double meanY = sumY / count;
+        double sxx = 0;
+        double sxy = 0;
+        double syy = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            if (costs[i] > 0) {
+                double dx = Math.log(sizes[i]) - meanX;
+                double dy = Math.log(costs[i]) - meanY;
+                sxx += dx * dx;
+                sxy += dx * dy;
+                syy += dy * dy;
+            }
+        }
+        double slope = sxy / sxx;
+        double residual = Math.max(0, syy - slope * sxy);
+        double standardError = Math.sqrt(residual / (count - 2) / sxx);
+        return new Exponent(slope, 2 * standardError, syy == 0 ? 1 : 1 - residual / syy);
+    }
+}
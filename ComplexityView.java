@@ -0,0 +1,157 @@
+package com.visualizer.sorting;
+
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.*;
+import javafx.scene.layout.*;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.stage.Stage;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+/**
+ * Shows ComplexityAnalyzer's results: comparisons against n for every algorithm on
+ * log2 axes, where a straight line of slope k means n^k, each with its fitted
+ * c * n, c * n log n and c * n^2 curves dashed over it, and a table of the fitted
+ * growth. The analysis runs on a BackgroundTasks thread.
+ */
+class ComplexityView {
+    private static final int MAX_SIZE = 1 << 20;
+    private static final long BUDGET_NANOS = 1_000_000_000L;
+
+    private final Stage stage = new Stage();
+    private final LineChart<Number, Number> chart;
+    private final GridPane table = new GridPane();
+    private final Label statusLabel = new Label("Press Analyze to measure every algorithm 📐");
+    private final Button analyzeBtn = new Button("📐 Analyze");
+    private Future<?> task;
+
+    public ComplexityView() {
+        NumberAxis sizeAxis = new NumberAxis();
+        sizeAxis.setLabel("log2 n");
+        sizeAxis.setForceZeroInRange(false);
+        NumberAxis costAxis = new NumberAxis();
+        costAxis.setLabel("log2 comparisons");
+        costAxis.setForceZeroInRange(false);
+        chart = new LineChart<>(sizeAxis, costAxis);
+        chart.setCreateSymbols(true);
+        chart.setAnimated(false);
+
+        analyzeBtn.setStyle("-fx-background-color: #4CAF50; -fx-text-fill: white; -fx-font-weight: bold;");
+        analyzeBtn.setOnAction(e -> analyze());
+
+        statusLabel.setTextFill(Color.WHITE);
+        statusLabel.setFont(Font.font("Arial", FontWeight.BOLD, 14));
+
+        HBox controls = new HBox(15, analyzeBtn, statusLabel);
+        controls.setAlignment(Pos.CENTER_LEFT);
+        controls.setPadding(new Insets(15));
+
+        table.setHgap(20);
+        table.setVgap(4);
+        table.setPadding(new Insets(10));
+
+        BorderPane root = new BorderPane();
+        root.setStyle("-fx-background: linear-gradient(to bottom, #1e3c72, #2a5298);");
+        root.setTop(controls);
+        root.setCenter(chart);
+        root.setBottom(table);
+
+        stage.setTitle("📐 Empirical Complexity");
+        stage.setScene(new Scene(root, 1000, 760));
+        stage.setOnHidden(e -> {
+            if (task != null) {
+                task.cancel(true);
+            }
+        });
+    }
+
+    public void show() {
+        stage.show();
+    }
+
+    private void analyze() {
+        analyzeBtn.setDisable(true);
+        statusLabel.setText(String.format("Measuring at doubling sizes up to %,d elements... ⏳", MAX_SIZE));
+        ComplexityAnalyzer analyzer = new ComplexityAnalyzer(MAX_SIZE, BUDGET_NANOS);
+        long start = System.nanoTime();
+        task = BackgroundTasks.GENERATION.submit(() -> {
+            try {
+                Map<String, ComplexityAnalyzer.Analysis> results = analyzer.analyze(SortingAlgorithms.ALGORITHM_NAMES);
+                Platform.runLater(() -> show(results, System.nanoTime() - start));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                Platform.runLater(() -> {
+                    analyzeBtn.setDisable(false);
+                    statusLabel.setText("⚠️ Analysis failed: " + e.getMessage());
+                });
+            }
+        });
+    }
+
+    private void show(Map<String, ComplexityAnalyzer.Analysis> results, long elapsedNanos) {
+        chart.getData().clear();
+        table.getChildren().clear();
+        addRow(0, "Algorithm", "Largest n", "Best fit (R²)", "Comparison exponent", "Time exponent");
+
+        int row = 1;
+        for (ComplexityAnalyzer.Analysis analysis : results.values()) {
+            ComplexityAnalyzer.ModelFit best = analysis.getBestFit();
+            XYChart.Series<Number, Number> series = new XYChart.Series<>();
+            series.setName(String.format("%s: %s (R² %.4f), exponent %s", analysis.algorithm, best.model, best.rSquared,
+                analysis.comparisonExponent));
+            for (ComplexityAnalyzer.Measurement measurement : analysis.measurements) {
+                series.getData().add(new XYChart.Data<>(log2(measurement.size), log2(measurement.comparisons)));
+            }
+            chart.getData().add(series);
+            for (ComplexityAnalyzer.ModelFit fit : analysis.fits) {
+                addFittedCurve(analysis, fit, fit == best);
+            }
+
+            addRow(row++, analysis.algorithm, String.format("%,d", analysis.getLargestSize()),
+                String.format("%s (%.4f)", best.model, best.rSquared),
+                analysis.comparisonExponent.toString(), analysis.timeExponent.toString());
+        }
+
+        analyzeBtn.setDisable(false);
+        statusLabel.setText(String.format("Done in %.1f s ✅", elapsedNanos / 1e9));
+    }
+
+    // Sampled at the measured sizes, which are evenly spaced on the log2 axis
+    private void addFittedCurve(ComplexityAnalyzer.Analysis analysis, ComplexityAnalyzer.ModelFit fit, boolean best) {
+        XYChart.Series<Number, Number> series = new XYChart.Series<>();
+        series.setName(String.format("%s ≈ %.3g · %s", analysis.algorithm, fit.coefficient, fit.model));
+        for (ComplexityAnalyzer.Measurement measurement : analysis.measurements) {
+            series.getData().add(new XYChart.Data<>(log2(measurement.size), log2(fit.predict(measurement.size))));
+        }
+        chart.getData().add(series);
+        // Symbols were created as the points went in; a fit is a line, not measurements
+        series.getNode().setStyle(best
+            ? "-fx-stroke-width: 1.5px; -fx-stroke-dash-array: 8 4;"
+            : "-fx-stroke-width: 1px; -fx-stroke-dash-array: 2 4; -fx-opacity: 0.6;");
+        for (XYChart.Data<Number, Number> point : series.getData()) {
+            point.getNode().setVisible(false);
+        }
+    }
+
+    private void addRow(int row, String... cells) {
+        for (int column = 0; column < cells.length; column++) {
+            Label label = new Label(cells[column]);
+            label.setTextFill(Color.WHITE);
+            label.setFont(Font.font("Arial", row == 0 ? FontWeight.BOLD : FontWeight.NORMAL, 12));
+            table.add(label, column, row);
+        }
+    }
+
+    private static double log2(double value) {
+        return Math.log(Math.max(1, value)) / Math.log(2);
+    }
+}
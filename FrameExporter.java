@@ -0,0 +1,400 @@
+package com.visualizer.sorting;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import javax.imageio.ImageIO;
+
+/**
+ * Renders a sorting run to a PNG sequence or an animated GIF with no window.
+ * Steps are replayed the way AnimationManager plays them at the given speed and
+ * frame rate, each frame is drawn by BarRasterizer, and frames are encoded on a
+ * pool of threads while the replay carries on. GIF frames are compressed in
+ * parallel and written in order.
+ *
+ * Usage: FrameExporter (--trace file.strace | --algorithm merge [--size 100]
+ *                       [--distribution uniform] [--seed 42])
+ *                      [--format png|gif] [--output frames] [--speed 1-19] [--fps 30]
+ *                      [--width 900] [--height 400] [--threads N]
+ */
+public class FrameExporter {
+    private static final int FINAL_FRAME_CENTISECONDS = 200;
+
+    private String trace = null;
+    private String algorithm = "Merge Sort";
+    private int size = 100;
+    private InputDistribution distribution = InputDistribution.UNIFORM;
+    private long seed = 42;
+    private String format = "png";
+    private Path output = null;
+    private double speed = 10;
+    private int fps = 30;
+    private int width = 900;
+    private int height = 400;
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        FrameExporter exporter = new FrameExporter();
+        try {
+            exporter.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: FrameExporter (--trace file.strace | --algorithm merge [--size 100]"
+                + " [--distribution uniform] [--seed 42]) [--format png|gif] [--output frames]"
+                + " [--speed 10] [--fps 30] [--width 900] [--height 400] [--threads N]");
+            System.exit(2);
+        }
+        try {
+            exporter.export();
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Export failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--trace":
+                    trace = value;
+                    break;
+                case "--algorithm":
+                    List<String> algorithms = BenchmarkRunner.parseAlgorithms(value);
+                    if (algorithms.size() != 1) {
+                        throw new IllegalArgumentException("Exactly one algorithm can be exported at a time");
+                    }
+                    algorithm = algorithms.get(0);
+                    break;
+                case "--size":
+                    size = Integer.parseInt(value);
+                    break;
+                case "--distribution":
+                    distribution = InputDistribution.parse(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--format":
+                    if (!value.equals("png") && !value.equals("gif")) {
+                        throw new IllegalArgumentException("Unknown format " + value);
+                    }
+                    format = value;
+                    break;
+                case "--output":
+                    output = Paths.get(value);
+                    break;
+                case "--speed":
+                    speed = Double.parseDouble(value);
+                    if (speed < 1 || speed > 19) {
+                        throw new IllegalArgumentException("Speed runs from 1 to 19, as on the speed slider");
+                    }
+                    break;
+                case "--fps":
+                    fps = Integer.parseInt(value);
+                    break;
+                case "--width":
+                    width = Integer.parseInt(value);
+                    break;
+                case "--height":
+                    height = Integer.parseInt(value);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + option);
+            }
+        }
+        if (output == null) {
+            output = Paths.get(format.equals("gif") ? "sort.gif" : "frames");
+        }
+    }
+
+    private void export() throws IOException {
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, BackgroundTasks.daemonThreads("frame-encoder"));
+        Replay replay;
+        // Closing the sink on the way out releases the GIF file even if the export fails partway
+        try (FrameSink sink = format.equals("gif") ? new GifSink(pool) : new PngSink(pool)) {
+            if (trace != null) {
+                try (MappedTrace steps = MappedTrace.open(Paths.get(trace))) {
+                    replay = new Replay(steps.getInitialState(), sink);
+                    while (steps.hasNext()) {
+                        replay.accept(steps.next());
+                    }
+                    replay.finish();
+                }
+            } else {
+                int[] input = distribution.generate(size, seed);
+                replay = new Replay(input, sink);
+                new SortingAlgorithms().forName(algorithm).accept(input.clone(), replay);
+                replay.finish();
+            }
+            sink.finish();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double playbackSeconds = replay.frames * replay.frameSeconds;
+        System.out.printf(Locale.ROOT, "Exported %,d frames for %,d steps to %s in %.2f s on %d threads;"
+                + " playback at speed %.0f lasts %.1f s (%.1fx faster than real time)%n",
+            replay.frames, replay.steps, output, seconds, threads, speed, playbackSeconds,
+            playbackSeconds / seconds);
+    }
+
+    /**
+     * Applies steps as AnimationManager does: every step's mutation and marks,
+     * but only the highlight of the last step before each frame. Frames come
+     * every stepsPerFrame steps, or every step when playback is slower than fps.
+     */
+    private class Replay implements Consumer<SortStep> {
+        private final int[] values;
+        private final BitSet sorted = new BitSet();
+        private final int[] owners;
+        private final byte[] highlights;
+        private final BarRasterizer rasterizer = new BarRasterizer(width, height);
+        private final FrameSink sink;
+        private final double stepsPerFrame;
+        final double frameSeconds;
+        private double pendingSteps = 0;
+        private SortStep last;
+        private boolean hasOwners = false;
+        long steps = 0;
+        long frames = 0;
+
+        Replay(int[] initialState, FrameSink sink) {
+            this.values = initialState.clone();
+            this.owners = new int[values.length];
+            this.highlights = new byte[values.length];
+            Arrays.fill(owners, -1);
+            Arrays.fill(highlights, (byte) -1);
+            this.sink = sink;
+            double stepsPerSecond = AnimationManager.stepsPerSecond(speed);
+            this.stepsPerFrame = Math.max(1, stepsPerSecond / fps);
+            this.frameSeconds = stepsPerFrame / stepsPerSecond;
+            emit(false);
+        }
+
+        @Override
+        public void accept(SortStep step) {
+            step.applyTo(values);
+            step.applySortedMarks(sorted, values.length);
+            if (step.getWorker() >= 0) {
+                hasOwners = true;
+                if (step.isRange()) {
+                    Arrays.fill(owners, step.getRangeStart(), step.getRangeEnd() + 1, step.getWorker());
+                } else {
+                    for (int index : step.getHighlightIndices()) {
+                        owners[index] = step.getWorker();
+                    }
+                }
+            }
+            if (step.getType() == SortStep.StepType.COMPLETED) {
+                Arrays.fill(owners, -1);
+            }
+            last = step;
+            steps++;
+            pendingSteps++;
+            if (pendingSteps >= stepsPerFrame) {
+                pendingSteps -= stepsPerFrame;
+                emit(false);
+            }
+        }
+
+        void finish() {
+            last = null;
+            emit(true);
+        }
+
+        private void emit(boolean isFinal) {
+            byte color = last != null ? highlightOf(last.getType()) : -1;
+            if (color >= 0) {
+                setHighlight(last, color);
+            }
+            BufferedImage image = rasterizer.render(values, sorted, hasOwners ? owners : null, highlights);
+            if (color >= 0) {
+                setHighlight(last, (byte) -1);
+            }
+            int centiseconds = isFinal ? FINAL_FRAME_CENTISECONDS
+                : (int) Math.max(2, Math.round(frameSeconds * 100));
+            sink.add(frames++, image, centiseconds);
+        }
+
+        private void setHighlight(SortStep step, byte color) {
+            if (step.isRange()) {
+                if (step.getRangeEnd() >= step.getRangeStart()) {
+                    Arrays.fill(highlights, Math.max(0, step.getRangeStart()),
+                        Math.min(values.length - 1, step.getRangeEnd()) + 1, color);
+                }
+            } else {
+                for (int index : step.getHighlightIndices()) {
+                    if (index >= 0 && index < values.length) {
+                        highlights[index] = color;
+                    }
+                }
+            }
+        }
+    }
+
+    // The same colours AnimationManager.showStep highlights with
+    private static byte highlightOf(SortStep.StepType type) {
+        switch (type) {
+            case COMPARE:
+                return BarRasterizer.index(ColorScheme.COMPARING);
+            case SWAP:
+                return BarRasterizer.index(ColorScheme.SWAPPING);
+            case SHIFT:
+                return BarRasterizer.index(ColorScheme.SHIFTING);
+            case MERGE_PLACE:
+            case MERGED:
+                return BarRasterizer.index(ColorScheme.MERGING);
+            case PIVOT_SELECT:
+                return BarRasterizer.index(ColorScheme.PIVOT);
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Takes frames in order and encodes them on the pool. At most two frames per
+     * thread are in flight, so the replay never runs far ahead of the encoders.
+     * finish writes out the frames still in flight; close releases the output
+     * whether or not the export finished.
+     */
+    private abstract class FrameSink implements Closeable {
+        private final ExecutorService pool;
+        private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+
+        FrameSink(ExecutorService pool) {
+            this.pool = pool;
+        }
+
+        void add(long frame, BufferedImage image, int centiseconds) {
+            pending.addLast(pool.submit(() -> encode(frame, image, centiseconds)));
+            while (pending.size() > 2 * threads) {
+                written(await(pending.removeFirst()));
+            }
+        }
+
+        void finish() throws IOException {
+            while (!pending.isEmpty()) {
+                written(await(pending.removeFirst()));
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+        }
+
+        private byte[] await(Future<byte[]> frame) {
+            try {
+                return frame.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Export interrupted", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof UncheckedIOException) {
+                    throw (UncheckedIOException) e.getCause();
+                }
+                throw new IllegalStateException("Frame encoding failed", e.getCause());
+            }
+        }
+
+        // Runs on the pool; I/O failures are thrown as UncheckedIOException so await passes them on as such
+        abstract byte[] encode(long frame, BufferedImage image, int centiseconds);
+
+        // Runs on the replay thread, in frame order
+        abstract void written(byte[] encoded);
+    }
+
+    private class PngSink extends FrameSink {
+        PngSink(ExecutorService pool) throws IOException {
+            super(pool);
+            Files.createDirectories(output);
+        }
+
+        @Override
+        byte[] encode(long frame, BufferedImage image, int centiseconds) {
+            Path file = output.resolve(String.format(Locale.ROOT, "frame-%06d.png", frame));
+            try {
+                if (!ImageIO.write(image, "png", file.toFile())) {
+                    throw new IOException("No PNG writer available");
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        }
+
+        @Override
+        void written(byte[] encoded) {
+        }
+    }
+
+    private class GifSink extends FrameSink {
+        private final OutputStream out;
+
+        GifSink(ExecutorService pool) throws IOException {
+            super(pool);
+            out = new BufferedOutputStream(Files.newOutputStream(output), 1 << 16);
+            try {
+                GifEncoder.writeHeader(out, width, height, new BarRasterizer(width, height).getColorModel(),
+                    BarRasterizer.PALETTE_BITS);
+            } catch (IOException e) {
+                out.close();
+                throw e;
+            }
+        }
+
+        @Override
+        byte[] encode(long frame, BufferedImage image, int centiseconds) {
+            byte[] pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+            return GifEncoder.encodeFrame(pixels, width, height, centiseconds, BarRasterizer.PALETTE_BITS);
+        }
+
+        @Override
+        void written(byte[] encoded) {
+            try {
+                out.write(encoded);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        void finish() throws IOException {
+            super.finish();
+            GifEncoder.writeTrailer(out);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.visualizer.sorting;
+
+import java.awt.image.IndexColorModel;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writes an animated GIF whose frames can be compressed independently. ImageIO's
+ * GIF writer compresses each frame as it appends it, on the calling thread;
+ * here encodeFrame turns one frame into its finished bytes, so frames can be
+ * compressed in parallel and then written in order. All frames share the
+ * global colour table written by writeHeader.
+ */
+final class GifEncoder {
+    private static final int MAX_CODES = 4096;
+    private static final int MAX_CODE_SIZE = 12;
+
+    private GifEncoder() {
+    }
+
+    // Screen descriptor, global colour table and a loop-forever extension
+    public static void writeHeader(OutputStream out, int width, int height, IndexColorModel palette, int paletteBits)
+            throws IOException {
+        out.write("GIF89a".getBytes(StandardCharsets.US_ASCII));
+        writeShort(out, width);
+        writeShort(out, height);
+        out.write(0x80 | 0x70 | (paletteBits - 1));
+        out.write(0);
+        out.write(0);
+        for (int i = 0; i < 1 << paletteBits; i++) {
+            out.write(i < palette.getMapSize() ? palette.getRed(i) : 0);
+            out.write(i < palette.getMapSize() ? palette.getGreen(i) : 0);
+            out.write(i < palette.getMapSize() ? palette.getBlue(i) : 0);
+        }
+
+        out.write(new byte[]{0x21, (byte) 0xFF, 0x0B});
+        out.write("NETSCAPE2.0".getBytes(StandardCharsets.US_ASCII));
+        out.write(new byte[]{0x03, 0x01, 0x00, 0x00, 0x00});
+    }
+
+    public static void writeTrailer(OutputStream out) throws IOException {
+        out.write(0x3B);
+    }
+
+    /**
+     * One complete frame: its delay, the image descriptor and the LZW-compressed
+     * palette indices. Safe to call from any thread.
+     */
+    public static byte[] encodeFrame(byte[] pixels, int width, int height, int delayCentiseconds, int paletteBits) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(pixels.length / 8 + 64);
+        out.write(0x21);
+        out.write(0xF9);
+        out.write(4);
+        // Leave each frame in place for the next one to draw over
+        out.write(1 << 2);
+        writeShort(out, delayCentiseconds);
+        out.write(0);
+        out.write(0);
+
+        out.write(0x2C);
+        writeShort(out, 0);
+        writeShort(out, 0);
+        writeShort(out, width);
+        writeShort(out, height);
+        out.write(0);
+
+        int minCodeSize = Math.max(2, paletteBits);
+        out.write(minCodeSize);
+        compress(pixels, minCodeSize, new SubBlockWriter(out));
+        out.write(0);
+        return out.toByteArray();
+    }
+
+    // Variable-width LZW as GIF defines it, with a dense child table in place of a hash
+    private static void compress(byte[] pixels, int minCodeSize, SubBlockWriter out) {
+        int alphabet = 1 << minCodeSize;
+        int clearCode = alphabet;
+        int endCode = alphabet + 1;
+        int[] children = new int[MAX_CODES * alphabet];
+        int nextCode = endCode + 1;
+        int codeSize = minCodeSize + 1;
+
+        out.writeCode(clearCode, codeSize);
+        int prefix = -1;
+        for (byte pixel : pixels) {
+            int symbol = pixel & (alphabet - 1);
+            if (prefix < 0) {
+                prefix = symbol;
+                continue;
+            }
+            int child = children[prefix * alphabet + symbol];
+            if (child != 0) {
+                prefix = child;
+                continue;
+            }
+            out.writeCode(prefix, codeSize);
+            if (nextCode > (1 << codeSize) - 1 && codeSize < MAX_CODE_SIZE) {
+                codeSize++;
+            }
+            if (nextCode < MAX_CODES) {
+                children[prefix * alphabet + symbol] = nextCode++;
+            } else {
+                out.writeCode(clearCode, codeSize);
+                Arrays.fill(children, 0);
+                nextCode = endCode + 1;
+                codeSize = minCodeSize + 1;
+            }
+            prefix = symbol;
+        }
+        if (prefix >= 0) {
+            out.writeCode(prefix, codeSize);
+            if (nextCode > (1 << codeSize) - 1 && codeSize < MAX_CODE_SIZE) {
+                codeSize++;
+            }
+        }
+        out.writeCode(endCode, codeSize);
+        out.finish();
+    }
+
+    private static void writeShort(OutputStream out, int value) throws IOException {
+        out.write(value & 0xFF);
+        out.write((value >>> 8) & 0xFF);
+    }
+
+    private static void writeShort(ByteArrayOutputStream out, int value) {
+        out.write(value & 0xFF);
+        out.write((value >>> 8) & 0xFF);
+    }
+
+    // Packs codes least significant bit first into data sub-blocks of up to 255 bytes
+    private static final class SubBlockWriter {
+        private final ByteArrayOutputStream out;
+        private final byte[] block = new byte[255];
+        private int blockLength = 0;
+        private int bits = 0;
+        private int bitCount = 0;
+
+        SubBlockWriter(ByteArrayOutputStream out) {
+            this.out = out;
+        }
+
+        void writeCode(int code, int codeSize) {
+            bits |= code << bitCount;
+            bitCount += codeSize;
+            while (bitCount >= 8) {
+                writeByte(bits & 0xFF);
+                bits >>>= 8;
+                bitCount -= 8;
+            }
+        }
+
+        private void writeByte(int value) {
+            block[blockLength++] = (byte) value;
+            if (blockLength == block.length) {
+                flushBlock();
+            }
+        }
+
+        private void flushBlock() {
+            out.write(blockLength);
+            out.write(block, 0, blockLength);
+            blockLength = 0;
+        }
+
+        void finish() {
+            if (bitCount > 0) {
+                writeByte(bits & 0xFF);
+                bits = 0;
+                bitCount = 0;
+            }
+            if (blockLength > 0) {
+                flushBlock();
+            }
+        }
+    }
+}
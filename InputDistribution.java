@@ -0,0 +1,179 @@
+package com.visualizer.sorting;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Shapes of input array, for the visualizer and the headless benchmarks. Values
+ * fall in [10, 400), the range the visualizer has always generated.
+ *
+ * Arrays are filled in fixed-size chunks, each with its own SplittableRandom split
+ * from the seed in chunk order, so the same seed gives the same array whether the
+ * chunks run on one thread or many. Large arrays fill their chunks in parallel.
+ */
+enum InputDistribution {
+    UNIFORM("Uniform"),
+    SORTED("Sorted"),
+    REVERSED("Reversed"),
+    NEARLY_SORTED("Nearly sorted"),
+    SAWTOOTH("Sawtooth"),
+    FEW_UNIQUE("Few unique"),
+    GAUSSIAN("Gaussian"),
+    ORGAN_PIPE("Organ pipe"),
+    MEDIAN_OF_3_KILLER("Median-of-3 killer");
+
+    private static final int MIN_VALUE = 10;
+    private static final int MAX_VALUE = 400;
+    private static final int RANGE = MAX_VALUE - MIN_VALUE;
+    private static final int CHUNK_SIZE = 1 << 16;
+    private static final int SAWTOOTH_TEETH = 8;
+
+    private final String label;
+
+    InputDistribution(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public int[] generate(int size, long seed) {
+        if (this == NEARLY_SORTED) {
+            // About 1% of the elements out of place
+            return nearlySorted(size, size / 100 + 1, seed);
+        }
+        if (this == MEDIAN_OF_3_KILLER) {
+            return medianOfThreeKiller(size);
+        }
+
+        int[] array = new int[size];
+        int chunks = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[chunks];
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            randoms[chunk] = root.split();
+        }
+
+        IntStream range = IntStream.range(0, chunks);
+        if (chunks > 1) {
+            range = range.parallel();
+        }
+        range.forEach(chunk -> fill(array, chunk * CHUNK_SIZE,
+                Math.min(size, (chunk + 1) * CHUNK_SIZE), randoms[chunk]));
+        return array;
+    }
+
+    // The switch sits outside the loops so each shape fills its chunk in a tight loop
+    private void fill(int[] array, int from, int to, SplittableRandom random) {
+        int size = array.length;
+        switch (this) {
+            case UNIFORM:
+                for (int i = from; i < to; i++) {
+                    array[i] = MIN_VALUE + random.nextInt(RANGE);
+                }
+                break;
+            case SORTED:
+                for (int i = from; i < to; i++) {
+                    array[i] = ramp(i, size);
+                }
+                break;
+            case REVERSED:
+                for (int i = from; i < to; i++) {
+                    array[i] = ramp(size - 1 - i, size);
+                }
+                break;
+            case SAWTOOTH: {
+                int period = Math.max(1, (size + SAWTOOTH_TEETH - 1) / SAWTOOTH_TEETH);
+                for (int i = from; i < to; i++) {
+                    array[i] = ramp(i % period, period);
+                }
+                break;
+            }
+            case FEW_UNIQUE:
+                for (int i = from; i < to; i++) {
+                    array[i] = MIN_VALUE + 40 * random.nextInt(10);
+                }
+                break;
+            case GAUSSIAN:
+                // Centred in the range with most values within three standard deviations
+                for (int i = from; i < to; i++) {
+                    double value = MIN_VALUE + RANGE / 2.0 + random.nextGaussian() * RANGE / 6.0;
+                    array[i] = (int) Math.max(MIN_VALUE, Math.min(MAX_VALUE - 1, value));
+                }
+                break;
+            case ORGAN_PIPE:
+                for (int i = from; i < to; i++) {
+                    array[i] = ramp(Math.min(i, size - 1 - i), (size + 1) / 2);
+                }
+                break;
+            default:
+                throw new IllegalStateException(name() + " is not filled by chunk");
+        }
+    }
+
+    // Position of i among length evenly spaced values
+    private static int ramp(int i, int length) {
+        return MIN_VALUE + (int) ((long) i * RANGE / Math.max(1, length));
+    }
+
+    // A sorted array with swaps pairs of elements exchanged at random
+    public static int[] nearlySorted(int size, int swaps, long seed) {
+        int[] array = SORTED.generate(size, seed);
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int k = 0; k < swaps && size > 1; k++) {
+            swap(array, random.nextInt(size), random.nextInt(size));
+        }
+        return array;
+    }
+
+    /**
+     * Musser's sequence that makes median-of-three quicksort go quadratic: every
+     * median it picks is the second-smallest element left. Built as a permutation
+     * of 1..n and then scaled into the value range, which keeps its order.
+     */
+    public static int[] medianOfThreeKiller(int size) {
+        int[] array = new int[size];
+        // The construction needs k even; up to three leftover elements go last, largest values
+        int k = size / 4 * 2;
+        for (int i = 1; i <= k; i++) {
+            if (i % 2 == 1) {
+                array[i - 1] = i;
+                array[i] = k + i;
+            }
+            array[k + i - 1] = 2 * i;
+        }
+        for (int i = 2 * k; i < size; i++) {
+            array[i] = i + 1;
+        }
+        for (int i = 0; i < size; i++) {
+            array[i] = ramp(array[i] - 1, size);
+        }
+        return array;
+    }
+
+    // Fisher-Yates in place, with no boxing; the same seed always gives the same order
+    public static void shuffle(int[] array, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = array.length - 1; i > 0; i--) {
+            swap(array, i, random.nextInt(i + 1));
+        }
+    }
+
+    private static void swap(int[] array, int i, int j) {
+        int temp = array[i];
+        array[i] = array[j];
+        array[j] = temp;
+    }
+
+    // The name parse accepts, as the command-line tools print it
+    public String getOptionName() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    // Accepts the enum name in any case, with dashes in place of underscores
+    public static InputDistribution parse(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+}
@@ -0,0 +1,75 @@
+package com.visualizer.sorting;
+
+import java.util.List;
+
+import com.visualizer.sorting.SortStep.StepType;
+
+public class InsertionSort implements SortAlgorithm {
+
+    @Override
+    public String getName() {
+        return "Insertion Sort";
+    }
+
+    @Override
+    public void sort(int[] array, StepSink steps) {
+        int n = array.length;
+
+        // Mark first element as sorted initially
+        steps.highlight(StepType.SORTED, 0, -1, StepTemplate.FIRST_SORTED, 0, 0);
+
+        for (int i = 1; i < n; i++) {
+            int key = array[i];
+            steps.highlight(StepType.CURRENT, i, -1, StepTemplate.SELECTED_KEY, key, 0);
+
+            int j = i - 1;
+
+            // Find the correct position and shift elements
+            while (j >= 0 && array[j] > key) {
+                steps.highlight(StepType.COMPARE, j, j + 1, StepTemplate.COMPARING_WITH, array[j], key);
+
+                // Shift element to the right
+                array[j + 1] = array[j];
+                steps.write(StepType.SHIFT, j, j + 1, StepTemplate.SHIFTING, array[j + 1], 0,
+                        j + 1, array[j + 1]);
+
+                j--;
+            }
+
+            // Insert the key at its correct position
+            array[j + 1] = key;
+            steps.write(StepType.INSERT, j + 1, -1, StepTemplate.INSERTED, key, j + 1, j + 1, key);
+
+            // Mark all elements from 0 to i as sorted
+            steps.highlightRange(StepType.SORTED, 0, i, StepTemplate.PREFIX_SORTED, i, 0);
+        }
+
+        steps.highlight(StepType.COMPLETED, -1, -1, StepTemplate.INSERTION_COMPLETED, 0, 0);
+    }
+
+    @Override
+    public List<String> getCode() {
+        return List.of(
+            "function insertionSort(array):",
+            "  for i = 1 to n-1:",
+            "    key = array[i]",
+            "    j = i - 1",
+            "    while j >= 0 and array[j] > key:",
+            "      array[j+1] = array[j]",
+            "      j = j - 1",
+            "    array[j+1] = key",
+            "  return array"
+        );
+    }
+
+    @Override
+    public int getCodeLine(SortStep step) {
+        switch (step.getType()) {
+            case CURRENT: return 2;
+            case COMPARE: return 4;
+            case SHIFT: return 5;
+            case INSERT: return 7;
+            default: return 1;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.visualizer.sorting;
+
+import java.util.Arrays;
+
+/**
+ * Hits per pseudocode line over the steps played, using the algorithm's own
+ * getCodeLine mapping. Counts live in a primitive array, so recording a step
+ * allocates nothing beyond a checkpoint every CHECKPOINT_INTERVAL steps. Playing
+ * backwards takes hits back with unrecord.
+ *
+ * While the counts cover every step from the start, a copy of them is kept at each
+ * CHECKPOINT_INTERVAL-th step the first time playback passes it, so a seek back to
+ * anywhere already played restores the checkpoint before it and walks the rest. A
+ * seek too far to walk starts the counts again from where it lands, and firstStep
+ * says where that was.
+ */
+class LineProfile {
+    static final int CHECKPOINT_INTERVAL = 4096;
+
+    private final SortAlgorithm algorithm;
+    private final long[] hits;
+    private long total;
+    private long firstStep;
+    // The step the next record counts
+    private long position;
+    // Counts after steps CHECKPOINT_INTERVAL, 2 * CHECKPOINT_INTERVAL and so on, hits.length apiece
+    private long[] checkpoints = new long[0];
+    private int checkpointCount;
+
+    public LineProfile(SortAlgorithm algorithm) {
+        this.algorithm = algorithm;
+        this.hits = new long[algorithm.getCode().size()];
+    }
+
+    public void record(SortStep step) {
+        int line = algorithm.getCodeLine(step);
+        if (line >= 0 && line < hits.length) {
+            hits[line]++;
+            total++;
+        }
+        position++;
+        if (firstStep == 0 && position == (checkpointCount + 1L) * CHECKPOINT_INTERVAL) {
+            addCheckpoint();
+        }
+    }
+
+    public void unrecord(SortStep step) {
+        if (position == firstStep) {
+            // Counting started after this step, so there is nothing to take back; the counts stay empty
+            firstStep--;
+            position--;
+            return;
+        }
+        int line = algorithm.getCodeLine(step);
+        if (line >= 0 && line < hits.length && hits[line] > 0) {
+            hits[line]--;
+            total--;
+        }
+        position--;
+    }
+
+    private void addCheckpoint() {
+        int offset = checkpointCount * hits.length;
+        if (offset + hits.length > checkpoints.length) {
+            checkpoints = Arrays.copyOf(checkpoints, Math.max(hits.length * 16, checkpoints.length * 2));
+        }
+        System.arraycopy(hits, 0, checkpoints, offset, hits.length);
+        checkpointCount++;
+    }
+
+    // Drops every count; the next step recorded is step number firstStep
+    public void restartAt(long firstStep) {
+        Arrays.fill(hits, 0);
+        total = 0;
+        this.firstStep = firstStep;
+        this.position = firstStep;
+    }
+
+    // The latest step at or before step whose counts restoreCheckpoint can bring back; step 0 always can
+    public long checkpointBefore(long step) {
+        return Math.min(step / CHECKPOINT_INTERVAL, checkpointCount) * CHECKPOINT_INTERVAL;
+    }
+
+    // Puts the counts back as they were after step steps; step must come from checkpointBefore
+    public void restoreCheckpoint(long step) {
+        int checkpoint = (int) (step / CHECKPOINT_INTERVAL);
+        if (checkpoint == 0) {
+            Arrays.fill(hits, 0);
+        } else {
+            System.arraycopy(checkpoints, (checkpoint - 1) * hits.length, hits, 0, hits.length);
+        }
+        total = 0;
+        for (long count : hits) {
+            total += count;
+        }
+        firstStep = 0;
+        position = step;
+    }
+
+    public int getLineCount() { return hits.length; }
+    public long getHits(int line) { return hits[line]; }
+    public long getTotal() { return total; }
+    public long getFirstStep() { return firstStep; }
+
+    public long getMaxHits() {
+        long max = 0;
+        for (long count : hits) {
+            max = Math.max(max, count);
+        }
+        return max;
+    }
+}
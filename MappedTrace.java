@@ -0,0 +1,348 @@
+package com.visualizer.sorting;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+
+/**
+ * Replays a trace file written by TraceFileWriter straight from a memory-mapped
+ * FileChannel. The file is mapped in 1 GB windows on first touch and only the
+ * current array lives on the heap, so even multi-gigabyte traces replay in a
+ * small, fixed footprint. Seeks use the checkpoint table at the end of the file.
+ */
+class MappedTrace implements StepStream, Closeable {
+    private static final int WINDOW_BITS = 30;
+    private static final long WINDOW_SIZE = 1L << WINDOW_BITS;
+
+    // Windows overlap so that nearly every record fits in the window it starts in
+    private static final int WINDOW_OVERLAP = 1 << 20;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final MappedByteBuffer[] windows;
+
+    private final String algorithmName;
+    private final int checkpointInterval;
+    private final int[] initialState;
+    private final long tableOffset;
+    // The file's template ids, resolved by key against the templates defined in this process
+    private final StepTemplate[] templates;
+    private final IntFunction<StepTemplate> templateIds;
+    private final long checkpointCount;
+    private final long stepCount;
+
+    private long position;
+    private long nextIndex = 0;
+
+    private MappedTrace(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.fileSize = channel.size();
+        this.windows = new MappedByteBuffer[(int) ((fileSize + WINDOW_SIZE - 1) >>> WINDOW_BITS)];
+
+        if (fileSize < TraceFileWriter.FOOTER_BYTES + 5 || readInt(0) != TraceFileWriter.MAGIC
+                || readInt(fileSize - 4) != TraceFileWriter.MAGIC) {
+            throw new IOException("Not a sort trace file");
+        }
+        if (readByte(4) != TraceFileWriter.VERSION) {
+            throw new IOException("Unsupported sort trace version " + readByte(4));
+        }
+
+        long footer = fileSize - TraceFileWriter.FOOTER_BYTES;
+        tableOffset = readLong(footer);
+        long templatesOffset = readLong(footer + 8);
+        checkpointCount = readLong(footer + 16);
+        stepCount = readLong(footer + 24);
+
+        position = 5;
+        algorithmName = readString();
+        long headerEnd = position;
+
+        // Loading the providers defines their templates
+        SortingAlgorithms.get(algorithmName);
+        position = templatesOffset;
+        templates = new StepTemplate[(int) readVarint()];
+        for (int i = 0; i < templates.length; i++) {
+            String key = readString();
+            StepTemplate template = StepTemplate.forKey(key);
+            templates[i] = template != null ? template : StepTemplate.unknown(key);
+        }
+        templateIds = id -> templates[id];
+
+        position = headerEnd;
+        checkpointInterval = (int) readVarint();
+        initialState = new int[(int) readVarint()];
+        for (int i = 0; i < initialState.length; i++) {
+            initialState[i] = (int) unzigzag(readVarint());
+        }
+    }
+
+    public static MappedTrace open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new MappedTrace(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextIndex < stepCount;
+    }
+
+    @Override
+    public SortStep next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        while (readByte(position) == TraceFileWriter.CHECKPOINT_TAG) {
+            position++;
+            skipCheckpoint();
+        }
+        nextIndex++;
+        return decodeAtPosition();
+    }
+
+    @Override
+    public boolean hasPrevious() {
+        return nextIndex > 0;
+    }
+
+    @Override
+    public SortStep previous() {
+        if (!hasPrevious()) {
+            throw new NoSuchElementException();
+        }
+        // A checkpoint sits between this step and the one before; the table says where it starts
+        if (nextIndex % checkpointInterval == 0) {
+            position = readLong(tableOffset + nextIndex / checkpointInterval * 16 + 8);
+        }
+        // Each record ends with its length, written so that it reads backwards
+        long end = position;
+        long length = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = readByte(--end);
+            length |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        long start = end - length;
+
+        nextIndex--;
+        position = start;
+        SortStep step = decodeAtPosition();
+        position = start;
+        return step;
+    }
+
+    private SortStep decodeAtPosition() {
+        ByteBuffer window = window(position);
+        int offset = (int) (position & (WINDOW_SIZE - 1));
+        window.position(offset);
+        try {
+            SortStep step = StepCodec.decode(window, templateIds);
+            position += window.position() - offset;
+            return step;
+        } catch (BufferUnderflowException e) {
+            return decodeSpanning();
+        }
+    }
+
+    /**
+     * Decodes a record that runs past the end of its window, such as a COMPLETED
+     * step carrying O(n) sorted runs from a very large Quick Sort. It gets a
+     * mapping of its own from its first byte, doubled until the record fits.
+     */
+    private SortStep decodeSpanning() {
+        long size = 2L * WINDOW_OVERLAP;
+        while (true) {
+            long length = Math.min(Math.min(size, fileSize - position), Integer.MAX_VALUE);
+            ByteBuffer buffer;
+            try {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            try {
+                SortStep step = StepCodec.decode(buffer, templateIds);
+                position += buffer.position();
+                return step;
+            } catch (BufferUnderflowException e) {
+                if (length == fileSize - position || length == Integer.MAX_VALUE) {
+                    throw e;
+                }
+                size *= 2;
+            }
+        }
+    }
+
+    public int seek(long target, int[] state, BitSet sorted, SortingStatistics statistics) {
+        target = Math.max(0, Math.min(target, stepCount));
+
+        // Binary search for the last checkpoint at or before the target
+        long low = 0;
+        long high = checkpointCount - 1;
+        while (low < high) {
+            long mid = (low + high + 1) >>> 1;
+            if (readLong(tableOffset + mid * 16) <= target) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        nextIndex = readLong(tableOffset + low * 16);
+        position = readLong(tableOffset + low * 16 + 8) + 1;
+        readCheckpoint(state, sorted, statistics);
+
+        int replayed = 0;
+        while (nextIndex < target) {
+            SortStep step = next();
+            step.applyTo(state);
+            step.applySortedMarks(sorted, state.length);
+            if (statistics != null) {
+                statistics.record(step);
+            }
+            replayed++;
+        }
+        return replayed;
+    }
+
+    private void readCheckpoint(int[] state, BitSet sorted, SortingStatistics statistics) {
+        for (int i = 0; i < state.length; i++) {
+            state[i] = (int) unzigzag(readVarint());
+        }
+        long[] words = new long[(int) readVarint()];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = readLong(position);
+            position += 8;
+        }
+        sorted.clear();
+        sorted.or(BitSet.valueOf(words));
+        long comparisons = readVarint();
+        long swaps = readVarint();
+        long arrayAccesses = readVarint();
+        if (statistics != null) {
+            statistics.restore(new long[]{comparisons, swaps, arrayAccesses, nextIndex});
+        }
+    }
+
+    private void skipCheckpoint() {
+        for (int i = 0; i < initialState.length; i++) {
+            readVarint();
+        }
+        long sortedWords = readVarint();
+        position += sortedWords * 8;
+        for (int i = 0; i < 3; i++) {
+            readVarint();
+        }
+    }
+
+    public int[] getInitialState() {
+        return initialState.clone();
+    }
+
+    public String getAlgorithm() {
+        return algorithmName;
+    }
+
+    public long getRecordedSteps() {
+        return stepCount;
+    }
+
+    public int getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    // Checkpoints stay in the mapped file, not on the heap
+    public long getCheckpointBytes() {
+        return 0;
+    }
+
+    // The file is mapped, not copied, so this is page cache rather than heap
+    public long getTraceBytes() {
+        return fileSize;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int readByte(long offset) {
+        return window(offset).get((int) (offset & (WINDOW_SIZE - 1))) & 0xFF;
+    }
+
+    private MappedByteBuffer window(long offset) {
+        int window = (int) (offset >>> WINDOW_BITS);
+        if (windows[window] == null) {
+            try {
+                long start = (long) window << WINDOW_BITS;
+                windows[window] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                        Math.min(WINDOW_SIZE + WINDOW_OVERLAP, fileSize - start));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return windows[window];
+    }
+
+    private int readInt(long offset) {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            value = (value << 8) | readByte(offset + i);
+        }
+        return value;
+    }
+
+    private long readLong(long offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | readByte(offset + i);
+        }
+        return value;
+    }
+
+    private long readVarint() {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = readByte(position++);
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private String readString() {
+        byte[] bytes = new byte[(int) readVarint()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) readByte(position++);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long unzigzag(long value) {
+        return StepCodec.unzigzag(value);
+    }
+}
@@ -0,0 +1,118 @@
+package com.visualizer.sorting;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.visualizer.sorting.SortStep.StepType;
+
+public class MergeSort implements SortAlgorithm {
+
+    @Override
+    public String getName() {
+        return "Merge Sort";
+    }
+
+    @Override
+    public void sort(int[] array, StepSink steps) {
+        sortRange(array, 0, array.length - 1, steps);
+
+        // Final step to mark all elements as sorted
+        steps.highlight(StepType.COMPLETED, -1, -1, StepTemplate.MERGE_COMPLETED, 0, 0);
+    }
+
+    // Shared with ParallelMergeSort, which sorts small ranges sequentially
+    static void sortRange(int[] array, int left, int right, StepSink steps) {
+        if (left < right) {
+            int mid = left + (right - left) / 2;
+
+            // Divide phase
+            steps.highlightRange(StepType.PARTITION_START, left, right, StepTemplate.DIVIDING, left, right);
+
+            sortRange(array, left, mid, steps);
+            sortRange(array, mid + 1, right, steps);
+            merge(array, left, mid, right, steps);
+        }
+    }
+
+    static void merge(int[] array, int left, int mid, int right, StepSink steps) {
+        int[] leftArr = Arrays.copyOfRange(array, left, mid + 1);
+        int[] rightArr = Arrays.copyOfRange(array, mid + 1, right + 1);
+
+        steps.highlightRange(StepType.MERGE_START, left, right, StepTemplate.MERGE_STARTING, left, right);
+
+        int i = 0, j = 0, k = left;
+
+        // Merge the two arrays
+        while (i < leftArr.length && j < rightArr.length) {
+            steps.highlight(StepType.COMPARE, left + i, mid + 1 + j, StepTemplate.COMPARING, leftArr[i], rightArr[j]);
+
+            if (leftArr[i] <= rightArr[j]) {
+                array[k] = leftArr[i];
+                steps.write(StepType.MERGE_PLACE, k, -1, StepTemplate.PLACING_LEFT, leftArr[i], k, k, leftArr[i]);
+                i++;
+            } else {
+                array[k] = rightArr[j];
+                steps.write(StepType.MERGE_PLACE, k, -1, StepTemplate.PLACING_RIGHT, rightArr[j], k, k, rightArr[j]);
+                j++;
+            }
+            k++;
+        }
+
+        // Copy remaining elements from left array
+        while (i < leftArr.length) {
+            array[k] = leftArr[i];
+            steps.write(StepType.MERGE_PLACE, k, -1, StepTemplate.PLACING_REMAINING_LEFT, leftArr[i], k,
+                    k, leftArr[i]);
+            i++;
+            k++;
+        }
+
+        // Copy remaining elements from right array
+        while (j < rightArr.length) {
+            array[k] = rightArr[j];
+            steps.write(StepType.MERGE_PLACE, k, -1, StepTemplate.PLACING_REMAINING_RIGHT, rightArr[j], k,
+                    k, rightArr[j]);
+            j++;
+            k++;
+        }
+
+        // Mark the merged range as sorted
+        steps.highlightRange(StepType.MERGED, left, right, StepTemplate.MERGED_RANGE, left, right);
+    }
+
+    @Override
+    public List<String> getCode() {
+        return List.of(
+            "function mergeSort(array, left, right):",
+            "  if left < right:",
+            "    mid = (left + right) / 2",
+            "    mergeSort(array, left, mid)",
+            "    mergeSort(array, mid+1, right)",
+            "    merge(array, left, mid, right)",
+            "",
+            "function merge(array, left, mid, right):",
+            "  create leftArray and rightArray",
+            "  i = 0, j = 0, k = left",
+            "  while i < leftSize and j < rightSize:",
+            "    if leftArray[i] <= rightArray[j]:",
+            "      array[k] = leftArray[i]",
+            "      i++",
+            "    else:",
+            "      array[k] = rightArray[j]",
+            "      j++",
+            "    k++",
+            "  copy remaining elements"
+        );
+    }
+
+    @Override
+    public int getCodeLine(SortStep step) {
+        switch (step.getType()) {
+            case DIVIDE: return 2;
+            case MERGE_PREP: return 8;
+            case COMPARE: return 11;
+            case MERGE_PLACE: return 12;
+            default: return 3;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.visualizer.sorting;
+
+import java.io.Closeable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A SortTrace that keeps its steps and checkpoints in direct buffers instead of
+ * on the heap, so a long recording adds nothing for the collector to trace.
+ * Steps are stored encoded by StepCodec in fixed-size blocks and decoded again
+ * when read; reads in order, forwards or backwards, go through a cursor, anything
+ * else starts from the nearest checkpoint. get and restoreState use the trace's own
+ * cursor; anything else reading it, such as a cached trace's replays, takes one of
+ * its own from newCursor. close() frees the buffers straight away rather than
+ * waiting for the GC to find them.
+ */
+class OffHeapTrace implements Closeable {
+    // Blocks start small, as most traces are short, and double up to the largest size
+    private static final int FIRST_BLOCK_SIZE = 64 << 10;
+    private static final int MAX_BLOCK_SIZE = 8 << 20;
+    private static final MethodHandle INVOKE_CLEANER = findCleaner();
+
+    private final int arrayLength;
+    private final int[] workingState;
+    private final BitSet workingSorted = new BitSet();
+    private final SortingStatistics workingStatistics = new SortingStatistics(null);
+    private final int checkpointInterval;
+
+    private final List<ByteBuffer> blocks = new ArrayList<>();
+    private final List<ByteBuffer> checkpoints = new ArrayList<>();
+    // Block and offset of every checkpointInterval-th step, packed as block << 32 | offset
+    private long[] checkpointPositions = new long[16];
+    private int size = 0;
+    private long stepBytes = 0;
+    private boolean closed = false;
+
+    // For the trace's own reads through get and restoreState
+    private final Cursor cursor = new Cursor();
+
+    public OffHeapTrace(int[] initialState, int checkpointInterval) {
+        this.arrayLength = initialState.length;
+        this.workingState = initialState.clone();
+        this.checkpointInterval = checkpointInterval;
+        blocks.add(ByteBuffer.allocateDirect(FIRST_BLOCK_SIZE));
+        addCheckpoint();
+    }
+
+    public void add(SortStep step) {
+        ensureOpen();
+        step.recordUndo(workingState, workingSorted);
+        ByteBuffer block = blocks.get(blocks.size() - 1);
+        // A record never spans two blocks
+        if (block.remaining() < StepCodec.maxEncodedSize(step)) {
+            int blockSize = Math.min(block.capacity() * 2, MAX_BLOCK_SIZE);
+            block = ByteBuffer.allocateDirect(Math.max(blockSize, StepCodec.maxEncodedSize(step)));
+            blocks.add(block);
+        }
+        if (size % checkpointInterval == 0) {
+            int checkpoint = size / checkpointInterval;
+            if (checkpoint == checkpointPositions.length) {
+                checkpointPositions = Arrays.copyOf(checkpointPositions, checkpoint * 2);
+            }
+            checkpointPositions[checkpoint] = position(blocks.size() - 1, block.position());
+        }
+        int start = block.position();
+        StepCodec.encode(step, block);
+        stepBytes += block.position() - start;
+        size++;
+
+        step.applyTo(workingState);
+        step.applySortedMarks(workingSorted, arrayLength);
+        workingStatistics.record(step);
+        if (size % checkpointInterval == 0) {
+            addCheckpoint();
+        }
+    }
+
+    private void addCheckpoint() {
+        long[] sortedWords = workingSorted.toLongArray();
+        long[] statistics = workingStatistics.snapshot();
+        ByteBuffer checkpoint = ByteBuffer.allocateDirect(
+                arrayLength * 4 + 4 + sortedWords.length * 8 + statistics.length * 8);
+        checkpoint.asIntBuffer().put(workingState);
+        checkpoint.position(arrayLength * 4);
+        checkpoint.putInt(sortedWords.length);
+        checkpoint.asLongBuffer().put(sortedWords);
+        checkpoint.position(checkpoint.position() + sortedWords.length * 8);
+        checkpoint.asLongBuffer().put(statistics);
+        checkpoints.add(checkpoint);
+    }
+
+    /**
+     * A read position in the trace. Each reader needs its own, as reading moves it;
+     * several cursors can read a trace that is no longer being added to at once.
+     */
+    final class Cursor {
+        private int cursorIndex = -1;
+        private long cursorPosition;
+
+        public SortStep get(int index) {
+            ensureOpen();
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Step " + index + " of " + size);
+            }
+            if (index < cursorIndex && cursorIndex - index <= 2) {
+                // Walking backwards: back over the record just read, then the one wanted
+                while (cursorIndex > index) {
+                    moveCursorBack();
+                }
+            } else if (index != cursorIndex) {
+                int checkpoint = index / checkpointInterval;
+                if (cursorIndex < checkpoint * checkpointInterval || cursorIndex > index) {
+                    cursorIndex = checkpoint * checkpointInterval;
+                    cursorPosition = checkpointPositions[checkpoint];
+                }
+                while (cursorIndex < index) {
+                    decodeAtCursor();
+                }
+            }
+            return decodeAtCursor();
+        }
+
+        private SortStep decodeAtCursor() {
+            int block = (int) (cursorPosition >>> 32);
+            ByteBuffer buffer = blocks.get(block).duplicate();
+            buffer.position((int) cursorPosition);
+            // The flip side of the check in add: the next record is in the next block
+            if (buffer.position() == blocks.get(block).position() && block + 1 < blocks.size()) {
+                block++;
+                buffer = blocks.get(block).duplicate();
+                buffer.position(0);
+            }
+            SortStep step = StepCodec.decode(buffer, StepTemplate::byId);
+            cursorPosition = position(block, buffer.position());
+            cursorIndex++;
+            return step;
+        }
+
+        private void moveCursorBack() {
+            int block = (int) (cursorPosition >>> 32);
+            int offset = (int) cursorPosition;
+            if (offset == 0) {
+                block--;
+                offset = blocks.get(block).position();
+            }
+            cursorPosition = position(block, StepCodec.recordStart(blocks.get(block), offset));
+            cursorIndex--;
+        }
+
+        // As OffHeapTrace.restoreState, replaying through this cursor
+        public int restoreState(int stepCount, int[] target, BitSet sortedTarget,
+                                SortingStatistics statisticsTarget) {
+            ensureOpen();
+            int checkpoint = Math.min(stepCount / checkpointInterval, checkpoints.size() - 1);
+            ByteBuffer buffer = checkpoints.get(checkpoint).duplicate().clear();
+            buffer.asIntBuffer().get(target, 0, arrayLength);
+            buffer.position(arrayLength * 4);
+            long[] sortedWords = new long[buffer.getInt()];
+            buffer.asLongBuffer().get(sortedWords);
+            buffer.position(buffer.position() + sortedWords.length * 8);
+            long[] statistics = new long[4];
+            buffer.asLongBuffer().get(statistics);
+            if (sortedTarget != null) {
+                sortedTarget.clear();
+                sortedTarget.or(BitSet.valueOf(sortedWords));
+            }
+            if (statisticsTarget != null) {
+                statisticsTarget.restore(statistics);
+            }
+
+            int from = checkpoint * checkpointInterval;
+            for (int i = from; i < stepCount; i++) {
+                SortStep step = get(i);
+                step.applyTo(target);
+                if (sortedTarget != null) {
+                    step.applySortedMarks(sortedTarget, arrayLength);
+                }
+                if (statisticsTarget != null) {
+                    statisticsTarget.record(step);
+                }
+            }
+            return stepCount - from;
+        }
+    }
+
+    private static long position(int block, int offset) {
+        return (long) block << 32 | offset;
+    }
+
+    // A cursor of its own for a reader sharing the trace, such as a TraceCache replay
+    public Cursor newCursor() {
+        return new Cursor();
+    }
+
+    public SortStep get(int index) {
+        return cursor.get(index);
+    }
+
+    /**
+     * Writes the array, sorted marks and statistics as they are after the first
+     * stepCount steps, as SortTrace.restoreState does. Returns how many steps had
+     * to be replayed on top of the checkpoint.
+     */
+    public int restoreState(int stepCount, int[] target, BitSet sortedTarget,
+                            SortingStatistics statisticsTarget) {
+        return cursor.restoreState(stepCount, target, sortedTarget, statisticsTarget);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getArrayLength() {
+        return arrayLength;
+    }
+
+    public SortingStatistics getStatistics() {
+        return workingStatistics;
+    }
+
+    // Direct memory held by the checkpoints, the part of the trace that grows with n
+    public long getCheckpointBytes() {
+        long bytes = 0;
+        for (ByteBuffer checkpoint : checkpoints) {
+            bytes += checkpoint.capacity();
+        }
+        return bytes;
+    }
+
+    // Encoded steps plus checkpoints; the unused tail of the last block is not counted
+    public long getOffHeapBytes() {
+        return stepBytes + getCheckpointBytes();
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Trace has been closed");
+        }
+    }
+
+    // Frees every buffer now; the trace cannot be used afterwards
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (ByteBuffer block : blocks) {
+            free(block);
+        }
+        for (ByteBuffer checkpoint : checkpoints) {
+            free(checkpoint);
+        }
+        blocks.clear();
+        checkpoints.clear();
+    }
+
+    private static void free(ByteBuffer buffer) {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invokeExact(buffer);
+        } catch (Throwable e) {
+            // Left for the GC to reclaim
+        }
+    }
+
+    // Unsafe.invokeCleaner where the JDK allows it, otherwise freeing is left to the GC
+    private static MethodHandle findCleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            Object unsafe = field.get(null);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(unsafe);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.visualizer.sorting;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import com.visualizer.sorting.SortStep.StepType;
+
+/**
+ * Merge sort with the two halves of every large range sorted in parallel on a
+ * fork/join pool. A sink that can hand each worker thread a sink of its own, as
+ * Counting and NONE do, gets one per worker, used without locking and joined back
+ * once the pool is done, so nothing is built or contended for. Otherwise each
+ * worker batches built steps, tagged with its worker number, and hands them to
+ * the sink under a lock. A task flushes its batch before it completes, so the
+ * steps of both halves are always delivered before the merge that reads them.
+ */
+public class ParallelMergeSort implements SortAlgorithm {
+    // Ranges smaller than this are sorted sequentially; forking them costs more than it saves
+    static final int PARALLEL_THRESHOLD = 4096;
+    private static final int WORKER_BATCH_SIZE = 256;
+
+    @Override
+    public String getName() {
+        return "Parallel Merge Sort";
+    }
+
+    @Override
+    public void sort(int[] array, StepSink steps) {
+        sort(array, steps, ForkJoinPool.commonPool());
+    }
+
+    public void sort(int[] array, StepSink steps, ForkJoinPool pool) {
+        Run run = new Run(steps);
+        pool.invoke(new ParallelMergeTask(array, 0, array.length - 1, run));
+        run.joinWorkers();
+
+        steps.highlight(StepType.COMPLETED, -1, -1, StepTemplate.PARALLEL_MERGE_COMPLETED, run.workerCount.get(), 0);
+    }
+
+    // The workers of one call to sort; they go when it returns, so pool threads never keep a sink reachable
+    private static class Run {
+        final StepSink target;
+        final Object lock = new Object();
+        final AtomicInteger workerCount = new AtomicInteger();
+        private final Map<Thread, WorkerSteps> workers = new ConcurrentHashMap<>();
+
+        Run(StepSink target) {
+            this.target = target;
+        }
+
+        WorkerSteps worker() {
+            return workers.computeIfAbsent(Thread.currentThread(),
+                    thread -> new WorkerSteps(workerCount.getAndIncrement(), this));
+        }
+
+        // After the pool has finished, so every worker's counts are visible here
+        void joinWorkers() {
+            for (WorkerSteps worker : workers.values()) {
+                worker.join();
+            }
+        }
+    }
+
+    private static class ParallelMergeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] array;
+        private final int left;
+        private final int right;
+        private final Run run;
+
+        ParallelMergeTask(int[] array, int left, int right, Run run) {
+            this.array = array;
+            this.left = left;
+            this.right = right;
+            this.run = run;
+        }
+
+        @Override
+        protected void compute() {
+            WorkerSteps steps = run.worker();
+            if (right - left < PARALLEL_THRESHOLD) {
+                MergeSort.sortRange(array, left, right, steps.sink);
+                steps.flush();
+                return;
+            }
+
+            int mid = left + (right - left) / 2;
+            steps.sink.highlightRange(StepType.PARTITION_START, left, right, StepTemplate.FORKING, left, right);
+            // Deliver the division before either half starts so its lanes are drawn over it
+            steps.flush();
+            invokeAll(new ParallelMergeTask(array, left, mid, run),
+                    new ParallelMergeTask(array, mid + 1, right, run));
+
+            MergeSort.merge(array, left, mid, right, steps.sink);
+            steps.flush();
+        }
+    }
+
+    /**
+     * One worker thread's steps: straight into its own sink from forWorker, or
+     * built and handed on in batches so threads rarely contend for the lock.
+     */
+    private static class WorkerSteps implements Consumer<SortStep> {
+        final StepSink sink;
+        private final StepSink own;
+        private final int worker;
+        private final Run run;
+        private final SortStep[] batch;
+        private int count = 0;
+
+        WorkerSteps(int worker, Run run) {
+            this.worker = worker;
+            this.run = run;
+            this.own = run.target.forWorker();
+            this.sink = own != null ? own : new StepSink.Streaming(this);
+            this.batch = own != null ? null : new SortStep[WORKER_BATCH_SIZE];
+        }
+
+        @Override
+        public void accept(SortStep step) {
+            step.setWorker(worker);
+            batch[count++] = step;
+            if (count == batch.length) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (count == 0) {
+                return;
+            }
+            synchronized (run.lock) {
+                for (int i = 0; i < count; i++) {
+                    run.target.accept(batch[i]);
+                }
+            }
+            Arrays.fill(batch, 0, count, null);
+            count = 0;
+        }
+
+        void join() {
+            if (own != null) {
+                run.target.join(own);
+            }
+        }
+    }
+
+    @Override
+    public List<String> getCode() {
+        return List.of(
+            "function parallelMergeSort(array, left, right):",
+            "  if right - left < THRESHOLD:",
+            "    mergeSort(array, left, right)",
+            "    return",
+            "  mid = (left + right) / 2",
+            "  fork parallelMergeSort(array, left, mid)",
+            "  parallelMergeSort(array, mid+1, right)",
+            "  join both halves",
+            "  merge(array, left, mid, right)"
+        );
+    }
+
+    @Override
+    public int getCodeLine(SortStep step) {
+        switch (step.getType()) {
+            case PARTITION_START: return step.getHighlightCount() > PARALLEL_THRESHOLD ? 5 : 2;
+            case MERGE_START: return 8;
+            case COMPARE: return 8;
+            case MERGE_PLACE: return 8;
+            default: return 1;
+        }
+    }
+}
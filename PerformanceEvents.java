@@ -0,0 +1,68 @@
+package com.visualizer.sorting;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder events for where the visualizer spends its time. Start a
+ * recording with -XX:StartFlightRecording or from JDK Mission Control and look
+ * under "Sorting Visualizer". A disabled event costs a field check, so they are
+ * left in unconditionally.
+ */
+final class PerformanceEvents {
+    private PerformanceEvents() {
+    }
+
+    @Name("com.visualizer.sorting.Generation")
+    @Label("Trace Generation")
+    @Category("Sorting Visualizer")
+    @Description("One run of a sorting algorithm producing its steps")
+    static class Generation extends Event {
+        @Label("Algorithm")
+        String algorithm;
+
+        @Label("Array Length")
+        int arrayLength;
+
+        @Label("Steps")
+        long steps;
+    }
+
+    @Name("com.visualizer.sorting.PlaybackFrame")
+    @Label("Playback Frame")
+    @Category("Sorting Visualizer")
+    @Description("Applying the steps due in one frame and drawing the last of them")
+    static class PlaybackFrame extends Event {
+        @Label("Steps Applied")
+        int stepsApplied;
+
+        @Label("Bars Changed")
+        int barsChanged;
+    }
+
+    @Name("com.visualizer.sorting.Repaint")
+    @Label("Full Repaint")
+    @Category("Sorting Visualizer")
+    @Description("A renderer redrawing every bar rather than only the changed ones")
+    static class Repaint extends Event {
+        @Label("Renderer")
+        String renderer;
+
+        @Label("Bars")
+        int bars;
+    }
+
+    @Name("com.visualizer.sorting.TraceMemory")
+    @Label("Trace Memory")
+    @Category("Sorting Visualizer")
+    @Description("Memory held by the trace being played, sampled with each HUD update")
+    static class TraceMemory extends Event {
+        @Label("Trace Bytes")
+        @DataAmount
+        long traceBytes;
+    }
+}
@@ -0,0 +1,135 @@
+package com.visualizer.sorting;
+
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Pos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Label;
+import javafx.scene.layout.HBox;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * An optional overlay with the live frame rate, p50/p99 frame times with a small
+ * histogram of them, heap in use and the bytes held by the trace being played.
+ * Frame times are the gaps between JavaFX pulses, kept in a ring of primitives,
+ * so measuring allocates nothing per frame; the text is refreshed four times a second.
+ */
+class PerformanceHud {
+    private static final int WINDOW = 240;
+    private static final long UPDATE_NANOS = 250_000_000L;
+    // Upper bounds of the histogram buckets, in milliseconds; the last one is open
+    private static final double[] BUCKET_LIMITS = {8, 17, 33, 50, Double.MAX_VALUE};
+    private static final String[] BUCKET_LABELS = {"<8", "<17", "<33", "<50", "50+"};
+
+    private final long[] frameNanos = new long[WINDOW];
+    private final long[] sortedNanos = new long[WINDOW];
+    private final int[] buckets = new int[BUCKET_LIMITS.length];
+    private long frames = 0;
+    private long lastPulse = -1;
+    private long lastUpdate = 0;
+
+    private final LongSupplier traceBytes;
+    private final HBox node;
+    private final Label label;
+    private final Canvas histogram = new Canvas(150, 44);
+
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            if (lastPulse >= 0) {
+                frameNanos[(int) (frames++ % WINDOW)] = now - lastPulse;
+            }
+            lastPulse = now;
+            if (now - lastUpdate >= UPDATE_NANOS) {
+                lastUpdate = now;
+                update();
+            }
+        }
+    };
+
+    public PerformanceHud(LongSupplier traceBytes) {
+        this.traceBytes = traceBytes;
+
+        label = new Label();
+        label.setTextFill(Color.LIGHTGREEN);
+        label.setFont(Font.font("Monospaced", FontWeight.BOLD, 12));
+
+        node = new HBox(10, label, histogram);
+        node.setAlignment(Pos.CENTER);
+        node.setStyle("-fx-background-color: rgba(0, 0, 0, 0.6); -fx-background-radius: 8; -fx-padding: 6;");
+        node.setVisible(false);
+        node.setManaged(false);
+    }
+
+    public HBox getNode() {
+        return node;
+    }
+
+    // Measures only while shown
+    public void setVisible(boolean visible) {
+        node.setVisible(visible);
+        node.setManaged(visible);
+        if (visible) {
+            frames = 0;
+            lastPulse = -1;
+            timer.start();
+        } else {
+            timer.stop();
+        }
+    }
+
+    private void update() {
+        int count = (int) Math.min(frames, WINDOW);
+        if (count == 0) return;
+
+        System.arraycopy(frameNanos, 0, sortedNanos, 0, count);
+        Arrays.sort(sortedNanos, 0, count);
+        long total = 0;
+        Arrays.fill(buckets, 0);
+        for (int i = 0; i < count; i++) {
+            total += sortedNanos[i];
+            double millis = sortedNanos[i] / 1_000_000.0;
+            int bucket = 0;
+            while (millis >= BUCKET_LIMITS[bucket]) {
+                bucket++;
+            }
+            buckets[bucket]++;
+        }
+        double p50 = sortedNanos[count / 2] / 1_000_000.0;
+        double p99 = sortedNanos[Math.min(count - 1, count * 99 / 100)] / 1_000_000.0;
+        double fps = count * 1_000_000_000.0 / total;
+
+        Runtime runtime = Runtime.getRuntime();
+        long heapUsed = runtime.totalMemory() - runtime.freeMemory();
+        long trace = traceBytes.getAsLong();
+        label.setText(String.format("%5.1f FPS%nframe p50 %5.1f ms  p99 %5.1f ms%nheap %,d MB  trace %,d KB",
+            fps, p50, p99, heapUsed >> 20, trace >> 10));
+        drawHistogram(count);
+
+        PerformanceEvents.TraceMemory event = new PerformanceEvents.TraceMemory();
+        if (event.shouldCommit()) {
+            event.traceBytes = trace;
+            event.commit();
+        }
+    }
+
+    private void drawHistogram(int count) {
+        GraphicsContext gc = histogram.getGraphicsContext2D();
+        double width = histogram.getWidth() / buckets.length;
+        double height = histogram.getHeight() - 12;
+        gc.clearRect(0, 0, histogram.getWidth(), histogram.getHeight());
+        gc.setFont(Font.font("Monospaced", 9));
+        for (int i = 0; i < buckets.length; i++) {
+            double barHeight = height * buckets[i] / count;
+            // Buckets slower than a 60 Hz frame are drawn in the swap colour
+            gc.setFill(i < 2 ? Color.LIGHTGREEN : ColorScheme.SWAPPING);
+            gc.fillRect(i * width + 2, height - barHeight, width - 4, barHeight);
+            gc.setFill(Color.WHITE);
+            gc.fillText(BUCKET_LABELS[i], i * width + 2, histogram.getHeight() - 1);
+        }
+    }
+}
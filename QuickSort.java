@@ -0,0 +1,102 @@
+package com.visualizer.sorting;
+
+import java.util.List;
+
+import com.visualizer.sorting.SortStep.StepType;
+
+public class QuickSort implements SortAlgorithm {
+
+    @Override
+    public String getName() {
+        return "Quick Sort";
+    }
+
+    @Override
+    public void sort(int[] array, StepSink steps) {
+        sortRange(array, 0, array.length - 1, steps);
+
+        steps.highlight(StepType.COMPLETED, -1, -1, StepTemplate.QUICK_COMPLETED, 0, 0);
+    }
+
+    private void sortRange(int[] array, int low, int high, StepSink steps) {
+        if (low < high) {
+            steps.highlightRange(StepType.PARTITION_START, low, high, StepTemplate.PARTITIONING, low, high);
+
+            int pi = partition(array, low, high, steps);
+
+            // Recursively sort left and right partitions
+            sortRange(array, low, pi - 1, steps);
+            sortRange(array, pi + 1, high, steps);
+        }
+    }
+
+    private int partition(int[] array, int low, int high, StepSink steps) {
+        int pivot = array[high];
+        steps.highlight(StepType.PIVOT_SELECT, high, -1, StepTemplate.PIVOT_SELECTED, pivot, 0);
+
+        int i = low - 1; // Index of smaller element
+
+        for (int j = low; j < high; j++) {
+            steps.highlight(StepType.COMPARE, j, high, StepTemplate.COMPARING_WITH_PIVOT, array[j], pivot);
+
+            if (array[j] <= pivot) {
+                i++;
+                if (i != j) {
+                    // Swap elements
+                    int temp = array[i];
+                    array[i] = array[j];
+                    array[j] = temp;
+
+                    steps.swap(StepType.SWAP, i, j, StepTemplate.SWAPPED, array[i], array[j]);
+                }
+            }
+        }
+
+        // Place pivot in its final position
+        if (i + 1 != high) {
+            int temp = array[i + 1];
+            array[i + 1] = array[high];
+            array[high] = temp;
+
+            steps.swap(StepType.PIVOT_FINAL, i + 1, high, StepTemplate.PIVOT_PLACED, pivot, i + 1);
+        }
+
+        // Mark the pivot position as sorted
+        steps.highlight(StepType.SORTED, i + 1, -1, StepTemplate.PIVOT_SORTED, pivot, i + 1);
+
+        return i + 1;
+    }
+
+    @Override
+    public List<String> getCode() {
+        return List.of(
+            "function quickSort(array, low, high):",
+            "  if low < high:",
+            "    pivotIndex = partition(array, low, high)",
+            "    quickSort(array, low, pivotIndex-1)",
+            "    quickSort(array, pivotIndex+1, high)",
+            "",
+            "function partition(array, low, high):",
+            "  pivot = array[high]",
+            "  i = low - 1",
+            "  for j = low to high-1:",
+            "    if array[j] < pivot:",
+            "      i++",
+            "      swap(array[i], array[j])",
+            "  swap(array[i+1], array[high])",
+            "  return i+1"
+        );
+    }
+
+    @Override
+    public int getCodeLine(SortStep step) {
+        switch (step.getType()) {
+            case PARTITION_START: return 2;
+            case PIVOT_SELECT: return 7;
+            case COMPARE: return 10;
+            case SWAP: return 12;
+            case PIVOT_FINAL: return 13;
+            default: return 1;
+        }
+    }
+}
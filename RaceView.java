@@ -0,0 +1,223 @@
+package com.visualizer.sorting;
+
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.layout.*;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.stage.Stage;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Races several algorithms on the same input, one panel each. Every panel has its
+ * own StepSource, so the runs are generated concurrently on BackgroundTasks
+ * threads, and a single AnimationTimer advances every panel by the same number
+ * of steps per frame. Panels paint on canvases, whose cost grows with their width
+ * rather than with the array length.
+ */
+class RaceView {
+    private static final int COLUMNS = 3;
+    private static final double PANEL_WIDTH = 420;
+    private static final double PANEL_HEIGHT = 220;
+
+    private static class Lane {
+        final String algorithm;
+        final StepSource source;
+        final AnimationManager manager = new AnimationManager(true);
+        final CanvasBarVisualizer visualizer = new CanvasBarVisualizer(PANEL_WIDTH, PANEL_HEIGHT);
+        final Label statsLabel = new Label();
+        int place;
+
+        Lane(String algorithm, StepSource source) {
+            this.algorithm = algorithm;
+            this.source = source;
+        }
+    }
+
+    private final SortingAlgorithms sortingAlgorithms = new SortingAlgorithms();
+    private final int[] input;
+    private final Stage stage = new Stage();
+    private final List<CheckBox> algorithmBoxes = new ArrayList<>();
+    private final GridPane grid = new GridPane();
+    private final Label summaryLabel = new Label("Pick the algorithms to race and press Start 🏁");
+    private final List<Lane> lanes = new ArrayList<>();
+    private double speed = 10;
+    private int finishedLanes;
+
+    private final AnimationTimer clock = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            for (Lane lane : lanes) {
+                lane.manager.advance(now);
+            }
+        }
+    };
+
+    public RaceView(int[] input) {
+        this.input = input.clone();
+
+        BorderPane root = new BorderPane();
+        root.setStyle("-fx-background: linear-gradient(to bottom, #1e3c72, #2a5298);");
+        root.setTop(createControls());
+
+        grid.setHgap(10);
+        grid.setVgap(10);
+        grid.setPadding(new Insets(10));
+        grid.setAlignment(Pos.TOP_CENTER);
+        ScrollPane scroll = new ScrollPane(grid);
+        scroll.setFitToWidth(true);
+        scroll.setStyle("-fx-background: transparent; -fx-background-color: transparent;");
+        root.setCenter(scroll);
+
+        summaryLabel.setTextFill(Color.WHITE);
+        summaryLabel.setFont(Font.font("Arial", FontWeight.BOLD, 14));
+        summaryLabel.setPadding(new Insets(10));
+        summaryLabel.setWrapText(true);
+        root.setBottom(summaryLabel);
+
+        stage.setTitle(String.format("🏁 Algorithm Race (%,d elements)", input.length));
+        stage.setScene(new Scene(root, 1340, 760));
+        stage.setOnHidden(e -> stopRace());
+    }
+
+    public void show() {
+        stage.show();
+    }
+
+    private HBox createControls() {
+        HBox controls = new HBox(15);
+        controls.setAlignment(Pos.CENTER);
+        controls.setPadding(new Insets(15));
+        controls.setStyle("-fx-background-color: rgba(255, 255, 255, 0.1);");
+
+        for (String algorithm : SortingAlgorithms.ALGORITHM_NAMES) {
+            CheckBox box = new CheckBox(algorithm);
+            box.setTextFill(Color.WHITE);
+            box.setSelected(true);
+            box.setStyle("-fx-font-weight: bold;");
+            algorithmBoxes.add(box);
+            controls.getChildren().add(box);
+        }
+
+        Slider speedSlider = new Slider(1, 19, speed);
+        speedSlider.setPrefWidth(150);
+        speedSlider.setStyle("-fx-base: #4a90e2;");
+        speedSlider.valueProperty().addListener((obs, oldVal, newVal) -> {
+            speed = newVal.doubleValue();
+            for (Lane lane : lanes) {
+                lane.manager.setSpeed(speed);
+            }
+        });
+
+        Button startBtn = new Button("🚀 Start");
+        startBtn.setStyle("-fx-background-color: #4CAF50; -fx-text-fill: white; -fx-font-weight: bold;");
+        startBtn.setOnAction(e -> startRace());
+
+        Button pauseBtn = new Button("⏸️ Pause");
+        pauseBtn.setStyle("-fx-background-color: #FF9800; -fx-text-fill: white; -fx-font-weight: bold;");
+        pauseBtn.setOnAction(e -> {
+            for (Lane lane : lanes) {
+                lane.manager.pauseAnimation();
+            }
+        });
+
+        controls.getChildren().addAll(speedSlider, startBtn, pauseBtn);
+        return controls;
+    }
+
+    private void startRace() {
+        stopRace();
+        grid.getChildren().clear();
+        finishedLanes = 0;
+
+        for (CheckBox box : algorithmBoxes) {
+            if (box.isSelected()) {
+                String algorithm = box.getText();
+                lanes.add(new Lane(algorithm,
+                    new StepSource(algorithm, input.clone(), sortingAlgorithms.forName(algorithm))));
+            }
+        }
+        if (lanes.isEmpty()) {
+            summaryLabel.setText("Select at least one algorithm");
+            return;
+        }
+
+        for (int i = 0; i < lanes.size(); i++) {
+            Lane lane = lanes.get(i);
+            grid.add(createPanel(lane), i % COLUMNS, i / COLUMNS);
+            lane.visualizer.updateVisualization(lane.source.getInitialState());
+            lane.manager.playSteps(lane.source, lane.visualizer, speed,
+                () -> finishLane(lane),
+                step -> updateLane(lane));
+        }
+        summaryLabel.setText(String.format("Racing %d algorithms... ⚡", lanes.size()));
+        clock.start();
+    }
+
+    private VBox createPanel(Lane lane) {
+        VBox panel = new VBox(4);
+        panel.setPadding(new Insets(6));
+        panel.setStyle("-fx-background-color: rgba(255, 255, 255, 0.1); -fx-background-radius: 10;");
+
+        Label title = new Label(lane.algorithm);
+        title.setTextFill(Color.WHITE);
+        title.setFont(Font.font("Arial", FontWeight.BOLD, 14));
+
+        lane.statsLabel.setTextFill(Color.WHITE);
+        lane.statsLabel.setFont(Font.font("Arial", FontWeight.NORMAL, 12));
+        updateLane(lane);
+
+        panel.getChildren().addAll(title, lane.visualizer.getVisualizationPane(), lane.statsLabel);
+        return panel;
+    }
+
+    // Called once per frame per lane, as playback draws only the last step of each frame
+    private void updateLane(Lane lane) {
+        SortingStatistics statistics = lane.manager.getStatistics();
+        String place = lane.place > 0 ? String.format("🏁 #%d  ", lane.place) : "";
+        lane.statsLabel.setText(String.format("%sSteps: %,d  Comparisons: %,d  Swaps: %,d",
+            place, lane.manager.getPlayedSteps(), statistics.getComparisons(), statistics.getSwaps()));
+    }
+
+    private void finishLane(Lane lane) {
+        lane.place = ++finishedLanes;
+        updateLane(lane);
+        if (finishedLanes == lanes.size()) {
+            clock.stop();
+            summaryLabel.setText(String.format("Fewest comparisons: %s · Fewest swaps: %s · Fastest: %s",
+                leader(SortingStatistics::getComparisons, "%,d"),
+                leader(SortingStatistics::getSwaps, "%,d"),
+                fastest()));
+        }
+    }
+
+    // Every lane has finished, so each source's generation statistics are complete
+    private String leader(ToLongFunction<SortingStatistics> counter, String format) {
+        Lane best = lanes.stream()
+            .min(Comparator.comparingLong(lane -> counter.applyAsLong(lane.manager.getStatistics())))
+            .orElseThrow();
+        return best.algorithm + " (" + String.format(format, counter.applyAsLong(best.manager.getStatistics())) + ")";
+    }
+
+    private String fastest() {
+        Lane best = lanes.stream()
+            .min(Comparator.comparingLong(lane -> lane.source.getGenerationNanos()))
+            .orElseThrow();
+        return String.format("%s (%.3f ms)", best.algorithm, best.source.getGenerationNanos() / 1_000_000.0);
+    }
+
+    private void stopRace() {
+        clock.stop();
+        for (Lane lane : lanes) {
+            lane.manager.stopAnimation();
+        }
+        lanes.clear();
+    }
+}
@@ -0,0 +1,69 @@
+package com.visualizer.sorting;
+
+import java.util.List;
+
+import com.visualizer.sorting.SortStep.StepType;
+
+public class SelectionSort implements SortAlgorithm {
+
+    @Override
+    public String getName() {
+        return "Selection Sort";
+    }
+
+    @Override
+    public void sort(int[] array, StepSink steps) {
+        int n = array.length;
+
+        for (int i = 0; i < n - 1; i++) {
+            int minIdx = i;
+
+            for (int j = i + 1; j < n; j++) {
+                steps.highlight(StepType.COMPARE, minIdx, j, StepTemplate.COMPARING, array[minIdx], array[j]);
+                if (array[j] < array[minIdx]) {
+                    minIdx = j;
+                }
+            }
+
+            if (minIdx != i) {
+                int temp = array[i];
+                array[i] = array[minIdx];
+                array[minIdx] = temp;
+
+                steps.swap(StepType.SWAP, i, minIdx, StepTemplate.SWAPPED, array[i], array[minIdx]);
+            }
+
+            steps.highlight(StepType.SORTED, i, -1, StepTemplate.POSITION_SORTED, i, 0);
+        }
+
+        steps.highlight(StepType.SORTED, n - 1, -1, StepTemplate.POSITION_SORTED, n - 1, 0);
+
+        steps.highlight(StepType.COMPLETED, -1, -1, StepTemplate.SELECTION_COMPLETED, 0, 0);
+    }
+
+    @Override
+    public List<String> getCode() {
+        return List.of(
+            "function selectionSort(array):",
+            "  n = array.length",
+            "  for i = 0 to n-2:",
+            "    minIndex = i",
+            "    for j = i+1 to n-1:",
+            "      if array[j] < array[minIndex]:",
+            "        minIndex = j",
+            "    swap(array[i], array[minIndex])",
+            "  return array"
+        );
+    }
+
+    @Override
+    public int getCodeLine(SortStep step) {
+        switch (step.getType()) {
+            case CURRENT: return 2;
+            case COMPARE: return 5;
+            case SELECT: return 6;
+            case SWAP: return 7;
+            default: return 3;
+        }
+    }
+}
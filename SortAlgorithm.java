@@ -0,0 +1,28 @@
+package com.visualizer.sorting;
+
+import java.util.List;
+
+/**
+ * A sorting algorithm the visualizer can run. Implementations are found with
+ * ServiceLoader: list the class in META-INF/services/com.visualizer.sorting.SortAlgorithm
+ * and it shows up in the algorithm menu, the race, the benchmarks and the
+ * exporter, with its pseudocode in the code panel. A provider needs to be a
+ * public class with a public no-argument constructor, and must keep no state
+ * between runs, since one instance serves every run. It can live in any package,
+ * and describes its steps with StepTemplate's shared templates or with its own,
+ * defined with StepTemplate.define in static fields so they exist once it is loaded.
+ */
+public interface SortAlgorithm {
+
+    // The name shown in the UI and accepted by the command-line tools
+    String getName();
+
+    // Sorts array in place, reporting every comparison and change to steps
+    void sort(int[] array, StepSink steps);
+
+    // Pseudocode shown in the code panel, one entry per line
+    List<String> getCode();
+
+    // The line of getCode a step belongs to, or -1 for none
+    int getCodeLine(SortStep step);
+}
@@ -1,27 +1,215 @@
 package com.visualizer.sorting;
 
-class SortStep {
+import java.util.Arrays;
+import java.util.BitSet;
+
+public class SortStep {
     public enum StepType {
         COMPARE, SWAP, SORTED, CURRENT, SELECT, INSERT, SHIFT,
         DIVIDE, MERGE_START, MERGE_PREP, MERGE_PLACE, MERGED,
         PARTITION_START, PIVOT_SELECT, PIVOT_PLACED, PIVOT_FINAL,
         COMPLETED
     }
-    
+
+    // The only change a step makes to the array; everything else is highlighting
+    public enum Mutation {
+        NONE, SWAP, WRITE
+    }
+
+    private static final int[] NO_INDICES = new int[0];
+
     private StepType type;
+    // Either a few explicit indices, or null with the inclusive range rangeStart..rangeEnd
     private int[] highlightIndices;
-    private int[] arrayState;
-    private String description;
-    
-    public SortStep(StepType type, int[] highlightIndices, int[] arrayState, String description) {
+    private int rangeStart;
+    private int rangeEnd;
+    // The description is formatted from these only when the step is shown
+    private StepTemplate template;
+    private int operand1;
+    private int operand2;
+    private Mutation mutation;
+    private int first;
+    private int second;
+    // Thread that produced the step in a parallel run, or -1 for a sequential one
+    private int worker = -1;
+    // Filled in by recordUndo: the value a WRITE overwrote, and the from..to runs a
+    // SORTED, MERGED or COMPLETED step marked that were not marked before it
+    private int previous;
+    private int[] newlySorted = NO_INDICES;
+
+    public SortStep(StepType type, int[] highlightIndices,
+                    StepTemplate template, int operand1, int operand2) {
+        this(type, highlightIndices, template, operand1, operand2, Mutation.NONE, 0, 0);
+    }
+
+    // Highlights rangeStart..rangeEnd inclusive without storing an index per element
+    public SortStep(StepType type, int rangeStart, int rangeEnd,
+                    StepTemplate template, int operand1, int operand2) {
+        this(type, null, template, operand1, operand2, Mutation.NONE, 0, 0);
+        this.rangeStart = rangeStart;
+        this.rangeEnd = rangeEnd;
+    }
+
+    /**
+     * For SWAP, first and second are the swapped indices.
+     * For WRITE, first is the index and second the value written there.
+     */
+    public SortStep(StepType type, int[] highlightIndices, StepTemplate template, int operand1, int operand2,
+                    Mutation mutation, int first, int second) {
         this.type = type;
-        this.highlightIndices = highlightIndices.clone();
-        this.arrayState = arrayState.clone();
-        this.description = description;
+        this.highlightIndices = highlightIndices;
+        this.template = template;
+        this.operand1 = operand1;
+        this.operand2 = operand2;
+        this.mutation = mutation;
+        this.first = first;
+        this.second = second;
+    }
+
+    public void applyTo(int[] array) {
+        switch (mutation) {
+            case SWAP:
+                int temp = array[first];
+                array[first] = array[second];
+                array[second] = temp;
+                break;
+            case WRITE:
+                array[first] = second;
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Notes what applying the step to this array and these sorted marks will
+     * overwrite, so undoFrom can reverse it later. Recorders call it just before
+     * they apply the step; marks only ever get added, so the new ones are enough.
+     */
+    public void recordUndo(int[] array, BitSet sorted) {
+        if (mutation == Mutation.WRITE) {
+            previous = array[first];
+        }
+        switch (type) {
+            case SORTED:
+            case MERGED:
+                if (isRange()) {
+                    newlySorted = unmarkedRuns(sorted, rangeStart, rangeEnd);
+                } else {
+                    newlySorted = unmarkedIndices(sorted, highlightIndices);
+                }
+                break;
+            case COMPLETED:
+                newlySorted = unmarkedRuns(sorted, 0, array.length - 1);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static int[] unmarkedRuns(BitSet sorted, int from, int to) {
+        int[] runs = NO_INDICES;
+        int count = 0;
+        for (int start = sorted.nextClearBit(from); start <= to; start = sorted.nextClearBit(start)) {
+            int next = sorted.nextSetBit(start);
+            int end = next < 0 || next > to ? to : next - 1;
+            if (count == runs.length) {
+                runs = Arrays.copyOf(runs, Math.max(2, count * 2));
+            }
+            runs[count++] = start;
+            runs[count++] = end;
+            start = end + 1;
+        }
+        return count == runs.length ? runs : Arrays.copyOf(runs, count);
     }
-    
+
+    private static int[] unmarkedIndices(BitSet sorted, int[] indices) {
+        int[] runs = new int[indices.length * 2];
+        int count = 0;
+        for (int index : indices) {
+            if (!sorted.get(index)) {
+                runs[count++] = index;
+                runs[count++] = index;
+            }
+        }
+        return count == runs.length ? runs : Arrays.copyOf(runs, count);
+    }
+
+    // Takes back applyTo; only valid once recordUndo has run for the step
+    public void undoFrom(int[] array) {
+        switch (mutation) {
+            case SWAP:
+                applyTo(array);
+                break;
+            case WRITE:
+                array[first] = previous;
+                break;
+            default:
+                break;
+        }
+    }
+
+    // Mirrors what AnimationManager marks sorted when it plays the step
+    public void applySortedMarks(BitSet sorted, int arrayLength) {
+        switch (type) {
+            case SORTED:
+            case MERGED:
+                if (isRange()) {
+                    sorted.set(rangeStart, rangeEnd + 1);
+                } else {
+                    for (int index : highlightIndices) {
+                        sorted.set(index);
+                    }
+                }
+                break;
+            case COMPLETED:
+                sorted.set(0, arrayLength);
+                break;
+            default:
+                break;
+        }
+    }
+
     public StepType getType() { return type; }
-    public int[] getHighlightIndices() { return highlightIndices; }
-    public int[] getArrayState() { return arrayState; }
-    public String getDescription() { return description; }
+    public boolean isRange() { return highlightIndices == null; }
+    public int getRangeStart() { return rangeStart; }
+    public int getRangeEnd() { return rangeEnd; }
+
+    public int getHighlightCount() {
+        return isRange() ? Math.max(0, rangeEnd - rangeStart + 1) : highlightIndices.length;
+    }
+
+    // Builds an array for range steps; prefer the range accessors where possible
+    public int[] getHighlightIndices() {
+        if (!isRange()) {
+            return highlightIndices;
+        }
+        if (rangeEnd < rangeStart) {
+            return NO_INDICES;
+        }
+        int[] indices = new int[rangeEnd - rangeStart + 1];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = rangeStart + i;
+        }
+        return indices;
+    }
+
+    public String getDescription() { return template.format(operand1, operand2); }
+    public StepTemplate getTemplate() { return template; }
+    public int getOperand1() { return operand1; }
+    public int getOperand2() { return operand2; }
+    public Mutation getMutation() { return mutation; }
+    public int getFirst() { return first; }
+    public int getSecond() { return second; }
+    public int getWorker() { return worker; }
+    public int getPrevious() { return previous; }
+    public int[] getNewlySorted() { return newlySorted; }
+
+    public void setWorker(int worker) { this.worker = worker; }
+
+    // For decoders, which read what recordUndo noted instead of working it out
+    public void setUndo(int previous, int[] newlySorted) {
+        this.previous = previous;
+        this.newlySorted = newlySorted;
+    }
 }
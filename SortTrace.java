@@ -0,0 +1,146 @@
+package com.visualizer.sorting;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A recorded run of a sorting algorithm. Steps only carry the mutation they make,
+ * so the array is stored in full just once at the start and then every
+ * checkpointInterval steps. Memory grows with the number of steps, not n x steps.
+ * Checkpoints also hold which bars have been marked sorted and the statistics
+ * so far, so any step can be restored by replaying at most checkpointInterval steps.
+ */
+class SortTrace {
+    private static final int MIN_CHECKPOINT_INTERVAL = 1024;
+
+    private final int[] initialState;
+    private final int[] workingState;
+    private final BitSet workingSorted = new BitSet();
+    private final List<SortStep> steps = new ArrayList<>();
+    private final List<int[]> checkpoints = new ArrayList<>();
+    private final List<BitSet> sortedCheckpoints = new ArrayList<>();
+    private final SortingStatistics workingStatistics = new SortingStatistics(null);
+    private final List<long[]> statisticsCheckpoints = new ArrayList<>();
+    private final int checkpointInterval;
+    private long stepBytes = 0;
+
+    public SortTrace(int[] initialState) {
+        this(initialState, defaultCheckpointInterval(initialState.length));
+    }
+
+    public SortTrace(int[] initialState, int checkpointInterval) {
+        this.initialState = initialState.clone();
+        this.workingState = initialState.clone();
+        this.checkpointInterval = checkpointInterval;
+        checkpoints.add(this.initialState);
+        sortedCheckpoints.add(new BitSet());
+        statisticsCheckpoints.add(workingStatistics.snapshot());
+    }
+
+    // Spacing the checkpoints by a multiple of n keeps them at a fixed cost per step
+    public static int defaultCheckpointInterval(int arrayLength) {
+        return Math.max(MIN_CHECKPOINT_INTERVAL, arrayLength * 8);
+    }
+
+    public void add(SortStep step) {
+        step.recordUndo(workingState, workingSorted);
+        steps.add(step);
+        stepBytes += estimateBytes(step);
+        step.applyTo(workingState);
+        step.applySortedMarks(workingSorted, initialState.length);
+        workingStatistics.record(step);
+        if (steps.size() % checkpointInterval == 0) {
+            checkpoints.add(workingState.clone());
+            sortedCheckpoints.add((BitSet) workingSorted.clone());
+            statisticsCheckpoints.add(workingStatistics.snapshot());
+        }
+    }
+
+    public SortStep get(int index) {
+        return steps.get(index);
+    }
+
+    public int size() {
+        return steps.size();
+    }
+
+    public int[] getInitialState() {
+        return initialState.clone();
+    }
+
+    public int[] getFinalState() {
+        return workingState.clone();
+    }
+
+    // Counters for every step recorded so far
+    public SortingStatistics getStatistics() {
+        return workingStatistics;
+    }
+
+    public int getArrayLength() {
+        return initialState.length;
+    }
+
+    public int getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    public long getCheckpointBytes() {
+        // Each checkpoint is a full int[], one bit per element for the sorted marks and four counters
+        return (long) checkpoints.size() * (initialState.length * 4L + initialState.length / 8 + 16 + 48);
+    }
+
+    // Rough heap footprint of the recorded steps and checkpoints, assuming compressed references
+    public long getEstimatedBytes() {
+        return stepBytes + getCheckpointBytes();
+    }
+
+    private static long estimateBytes(SortStep step) {
+        long highlightBytes = step.isRange() ? 0 : align(16 + 4L * step.getHighlightCount());
+        // Descriptions are a template and two operands inside the step itself
+        return 4 + 56 + highlightBytes;
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    /**
+     * Writes the array as it looks after the first stepCount steps into target,
+     * starting from the nearest checkpoint at or before that point.
+     * Returns how many steps had to be replayed on top of the checkpoint.
+     */
+    public int restoreState(int stepCount, int[] target) {
+        return restoreState(stepCount, target, null, null);
+    }
+
+    public int restoreState(int stepCount, int[] target, BitSet sortedTarget) {
+        return restoreState(stepCount, target, sortedTarget, null);
+    }
+
+    public int restoreState(int stepCount, int[] target, BitSet sortedTarget,
+                            SortingStatistics statisticsTarget) {
+        int checkpoint = Math.min(stepCount / checkpointInterval, checkpoints.size() - 1);
+        System.arraycopy(checkpoints.get(checkpoint), 0, target, 0, target.length);
+        if (sortedTarget != null) {
+            sortedTarget.clear();
+            sortedTarget.or(sortedCheckpoints.get(checkpoint));
+        }
+        if (statisticsTarget != null) {
+            statisticsTarget.restore(statisticsCheckpoints.get(checkpoint));
+        }
+        int from = checkpoint * checkpointInterval;
+        for (int i = from; i < stepCount; i++) {
+            SortStep step = steps.get(i);
+            step.applyTo(target);
+            if (sortedTarget != null) {
+                step.applySortedMarks(sortedTarget, target.length);
+            }
+            if (statisticsTarget != null) {
+                statisticsTarget.record(step);
+            }
+        }
+        return stepCount - from;
+    }
+}
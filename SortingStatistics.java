@@ -1,53 +1,135 @@
 package com.visualizer.sorting;
 
-class SortingStatistics {
-    private int comparisons;
-    private int swaps;
-    private int arrayAccesses;
+/**
+ * Counts the work a sorting run does. Every comparison and every change to the
+ * array is emitted as a step, so the counters are driven by record(SortStep) and
+ * work the same for every generator, live or replayed from a trace.
+ */
+public class SortingStatistics {
+    private long comparisons;
+    private long swaps;
+    private long arrayAccesses;
+    private long steps;
     private long startTime;
     private long endTime;
+    private long excludedTime;
     private String algorithmName;
-    
+
     public SortingStatistics(String algorithmName) {
         this.algorithmName = algorithmName;
         reset();
     }
-    
+
     public void reset() {
         comparisons = 0;
         swaps = 0;
         arrayAccesses = 0;
+        steps = 0;
         startTime = 0;
         endTime = 0;
+        excludedTime = 0;
     }
-    
+
     public void startTiming() {
-        startTime = System.currentTimeMillis();
+        startTime = System.nanoTime();
+        endTime = startTime;
     }
-    
+
     public void endTiming() {
-        endTime = System.currentTimeMillis();
+        endTime = System.nanoTime();
+    }
+
+    // Leaves time the run spent blocked, rather than sorting, out of the execution time
+    public void excludeTime(long nanos) {
+        excludedTime += nanos;
     }
-    
+
     public void incrementComparisons() { comparisons++; }
     public void incrementSwaps() { swaps++; }
     public void incrementArrayAccesses() { arrayAccesses++; }
 
-    public int getComparisons() { return comparisons; }
-    public int getSwaps() { return swaps; }
-    public int getArrayAccesses() { return arrayAccesses; }
-    public long getExecutionTime() { return endTime - startTime; }
+    // A comparison reads two elements, a swap reads and writes two, a write stores one
+    public void record(SortStep step) {
+        record(step.getType(), step.getMutation());
+    }
+
+    // The same counts from a step's parts, for StepSink.Counting, which never builds the step
+    public void record(SortStep.StepType type, SortStep.Mutation mutation) {
+        steps++;
+        if (type == SortStep.StepType.COMPARE) {
+            comparisons++;
+            arrayAccesses += 2;
+        }
+        switch (mutation) {
+            case SWAP:
+                swaps++;
+                arrayAccesses += 4;
+                break;
+            case WRITE:
+                // A shift also reads the element it moves
+                arrayAccesses += type == SortStep.StepType.SHIFT ? 2 : 1;
+                break;
+            default:
+                break;
+        }
+    }
+
+    // Takes back what record counted for the same step, for playing backwards
+    public void unrecord(SortStep step) {
+        steps--;
+        if (step.getType() == SortStep.StepType.COMPARE) {
+            comparisons--;
+            arrayAccesses -= 2;
+        }
+        switch (step.getMutation()) {
+            case SWAP:
+                swaps--;
+                arrayAccesses -= 4;
+                break;
+            case WRITE:
+                arrayAccesses -= step.getType() == SortStep.StepType.SHIFT ? 2 : 1;
+                break;
+            default:
+                break;
+        }
+    }
+
+    // Adds another run's counters, such as one worker thread's share of a parallel sort
+    public void add(SortingStatistics other) {
+        comparisons += other.comparisons;
+        swaps += other.swaps;
+        arrayAccesses += other.arrayAccesses;
+        steps += other.steps;
+    }
+
+    // Counters only, for SortTrace checkpoints; timing is not part of a snapshot
+    public long[] snapshot() {
+        return new long[]{comparisons, swaps, arrayAccesses, steps};
+    }
+
+    public void restore(long[] snapshot) {
+        comparisons = snapshot[0];
+        swaps = snapshot[1];
+        arrayAccesses = snapshot[2];
+        steps = snapshot[3];
+    }
+
+    public long getComparisons() { return comparisons; }
+    public long getSwaps() { return swaps; }
+    public long getArrayAccesses() { return arrayAccesses; }
+    public long getSteps() { return steps; }
+    public long getExecutionNanos() { return endTime - startTime - excludedTime; }
     public String getAlgorithmName() { return algorithmName; }
-    
+
     @Override
     public String toString() {
         return String.format(
             "%s Statistics:\n" +
-            "Comparisons: %d\n" +
-            "Swaps: %d\n" +
-            "Array Accesses: %d\n" +
-            "Execution Time: %d ms",
-            algorithmName, comparisons, swaps, arrayAccesses, getExecutionTime()
+            "Comparisons: %,d\n" +
+            "Swaps: %,d\n" +
+            "Array Accesses: %,d\n" +
+            "Execution Time: %.3f ms",
+            algorithmName, comparisons, swaps, arrayAccesses, getExecutionNanos() / 1_000_000.0
         );
     }
 }
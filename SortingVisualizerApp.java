@@ -10,7 +10,10 @@ import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.scene.text.Text;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import javafx.util.StringConverter;
+import java.io.File;
 
 public class SortingVisualizerApp extends Application {
     
@@ -79,7 +82,7 @@ public class SortingVisualizerApp extends Application {
 
         VBox codeControls = createCodeControls();
         
-        rightPanel.getChildren().addAll(codePanel, codeControls);
+        rightPanel.getChildren().addAll(codePanel, codeControls, controller.getStatisticsPanel());
         return rightPanel;
     }
     
@@ -101,6 +104,11 @@ public class SortingVisualizerApp extends Application {
         showCodeExecution.setId("showCodeExecution");
         showCodeExecution.setStyle("-fx-font-weight: bold;");
 
+        CheckBox showPerformanceHud = new CheckBox("Show Performance HUD");
+        showPerformanceHud.setTextFill(Color.WHITE);
+        showPerformanceHud.setStyle("-fx-font-weight: bold;");
+        showPerformanceHud.setOnAction(e -> controller.setPerformanceHudVisible(showPerformanceHud.isSelected()));
+
         Button testHighlightBtn = new Button("🔍 Test Highlight");
         testHighlightBtn.setStyle(
             "-fx-background-color: #9b59b6; -fx-text-fill: white; " +
@@ -120,7 +128,7 @@ public class SortingVisualizerApp extends Application {
         clearHighlightBtn.setOnAction(e -> codeTracker.clearHighlight());
         
         controlsBox.getChildren().addAll(
-            title, showCodeExecution, testHighlightBtn, clearHighlightBtn
+            title, showCodeExecution, showPerformanceHud, testHighlightBtn, clearHighlightBtn
         );
         
         return controlsBox;
@@ -164,11 +172,8 @@ public class SortingVisualizerApp extends Application {
         Label algoLabel = createStyledLabel("Algorithm:");
         
         ComboBox<String> algorithmCombo = new ComboBox<>();
-        algorithmCombo.getItems().addAll(
-            "Bubble Sort", "Selection Sort", "Insertion Sort", 
-            "Merge Sort", "Quick Sort"
-        );
-        algorithmCombo.setValue("Bubble Sort");
+        algorithmCombo.getItems().addAll(SortingAlgorithms.ALGORITHM_NAMES);
+        algorithmCombo.setValue(SortingAlgorithms.ALGORITHM_NAMES.get(0));
         algorithmCombo.setPrefWidth(150);
         algorithmCombo.setStyle(
             "-fx-base: #4a90e2; " +
@@ -192,24 +197,54 @@ public class SortingVisualizerApp extends Application {
         
         Label sizeLabel = createStyledLabel("Array Size:");
         
-        Slider sizeSlider = new Slider(10, 100, 50);
+        // Logarithmic so both 10 and 100,000 elements are easy to pick
+        Slider sizeSlider = new Slider(1, 5, Math.log10(50));
         sizeSlider.setShowTickLabels(true);
         sizeSlider.setShowTickMarks(true);
-        sizeSlider.setMajorTickUnit(20);
-        sizeSlider.setBlockIncrement(5);
+        sizeSlider.setMajorTickUnit(1);
+        sizeSlider.setMinorTickCount(0);
+        sizeSlider.setBlockIncrement(0.1);
         sizeSlider.setPrefWidth(200);
         sizeSlider.setStyle("-fx-base: #4a90e2;");
+        sizeSlider.setLabelFormatter(new StringConverter<Double>() {
+            @Override
+            public String toString(Double value) {
+                return String.format("%,d", Math.round(Math.pow(10, value)));
+            }
+
+            @Override
+            public Double fromString(String text) {
+                return Math.log10(Double.parseDouble(text.replace(",", "")));
+            }
+        });
         
         Label sizeValue = createStyledLabel("50");
         sizeValue.setStyle("-fx-font-weight: bold; -fx-font-size: 16px;");
         
         sizeSlider.valueProperty().addListener((obs, oldVal, newVal) -> {
-            int size = newVal.intValue();
-            sizeValue.setText(String.valueOf(size));
+            int size = (int) Math.round(Math.pow(10, newVal.doubleValue()));
+            sizeValue.setText(String.format("%,d", size));
             controller.setArraySize(size);
         });
         
-        sizeSection.getChildren().addAll(sizeLabel, sizeSlider, sizeValue);
+        ComboBox<InputDistribution> distributionCombo = new ComboBox<>();
+        distributionCombo.getItems().addAll(InputDistribution.values());
+        distributionCombo.setValue(InputDistribution.UNIFORM);
+        distributionCombo.setStyle("-fx-base: #4a90e2; -fx-background-radius: 5;");
+        distributionCombo.setConverter(new StringConverter<InputDistribution>() {
+            @Override
+            public String toString(InputDistribution distribution) {
+                return distribution.getLabel();
+            }
+
+            @Override
+            public InputDistribution fromString(String text) {
+                return InputDistribution.parse(text.replace(' ', '_'));
+            }
+        });
+        distributionCombo.setOnAction(e -> controller.setDistribution(distributionCombo.getValue()));
+        
+        sizeSection.getChildren().addAll(sizeLabel, sizeSlider, sizeValue, distributionCombo);
         return sizeSection;
     }
     
@@ -219,7 +254,7 @@ public class SortingVisualizerApp extends Application {
         
         Label speedLabel = createStyledLabel("Speed:");
         
-        Slider speedSlider = new Slider(1, 10, 5);
+        Slider speedSlider = new Slider(1, 19, 4);
         speedSlider.setShowTickLabels(true);
         speedSlider.setShowTickMarks(true);
         speedSlider.setMajorTickUnit(3);
@@ -227,13 +262,32 @@ public class SortingVisualizerApp extends Application {
         speedSlider.setStyle("-fx-base: #4a90e2;");
         speedSlider.setId("speedSlider");
         
-        Label speedValue = createStyledLabel("5x");
+        Label speedValue = createStyledLabel(formatSpeed(4));
         speedValue.setStyle("-fx-font-weight: bold; -fx-font-size: 14px;");
         speedSlider.valueProperty().addListener((obs, oldVal, newVal) -> {
-            speedValue.setText(String.format("%.0fx", newVal.doubleValue()));
+            speedValue.setText(formatSpeed(newVal.doubleValue()));
+            controller.setSpeed(newVal.doubleValue());
+        });
+        
+        // Steps between two drawn frames are applied together, so this caps redraws, not speed
+        ComboBox<Integer> fpsCombo = new ComboBox<>();
+        fpsCombo.getItems().addAll(15, 30, 60, 120);
+        fpsCombo.setValue(60);
+        fpsCombo.setStyle("-fx-base: #4a90e2; -fx-background-radius: 5;");
+        fpsCombo.setConverter(new StringConverter<Integer>() {
+            @Override
+            public String toString(Integer fps) {
+                return fps + " FPS";
+            }
+
+            @Override
+            public Integer fromString(String text) {
+                return Integer.parseInt(text.replace(" FPS", ""));
+            }
         });
+        fpsCombo.setOnAction(e -> controller.setTargetFps(fpsCombo.getValue()));
         
-        speedSection.getChildren().addAll(speedLabel, speedSlider, speedValue);
+        speedSection.getChildren().addAll(speedLabel, speedSlider, speedValue, fpsCombo);
         return speedSection;
     }
     
@@ -245,13 +299,16 @@ public class SortingVisualizerApp extends Application {
         Button pauseBtn = createStyledButton("⏸️ Pause", "#FF9800");
         Button resetBtn = createStyledButton("🔄 Reset", "#f44336");
         Button shuffleBtn = createStyledButton("🎲 Shuffle", "#2196F3");
+        Button saveTraceBtn = createStyledButton("💾 Save Trace", "#607D8B");
+        Button loadTraceBtn = createStyledButton("📂 Load Trace", "#607D8B");
+        Button raceBtn = createStyledButton("🏁 Race", "#9b59b6");
+        Button complexityBtn = createStyledButton("📐 Complexity", "#9b59b6");
 
         startBtn.setOnAction(e -> {
-            ComboBox<String> algorithmCombo = (ComboBox<String>) scene.lookup("#algorithmCombo");
             Slider speedSlider = (Slider) scene.lookup("#speedSlider");
             CheckBox showCodeExecution = (CheckBox) scene.lookup("#showCodeExecution");
             
-            String selectedAlgo = algorithmCombo.getValue();
+            String selectedAlgo = selectedAlgorithm();
             double speed = speedSlider.getValue();
             boolean showCode = showCodeExecution.isSelected();
             
@@ -262,10 +319,54 @@ public class SortingVisualizerApp extends Application {
         resetBtn.setOnAction(e -> controller.resetArray());
         shuffleBtn.setOnAction(e -> controller.shuffleArray());
         
-        buttonSection.getChildren().addAll(startBtn, pauseBtn, resetBtn, shuffleBtn);
+        saveTraceBtn.setOnAction(e -> {
+            String selectedAlgo = selectedAlgorithm();
+            FileChooser chooser = createTraceChooser();
+            chooser.setInitialFileName(selectedAlgo.replace(" ", "") + ".strace");
+            File file = chooser.showSaveDialog(scene.getWindow());
+            if (file != null) {
+                controller.saveTrace(selectedAlgo, file.toPath());
+            }
+        });
+        
+        loadTraceBtn.setOnAction(e -> {
+            Slider speedSlider = (Slider) scene.lookup("#speedSlider");
+            CheckBox showCodeExecution = (CheckBox) scene.lookup("#showCodeExecution");
+            File file = createTraceChooser().showOpenDialog(scene.getWindow());
+            if (file != null) {
+                controller.playTraceFile(file.toPath(), speedSlider.getValue(), showCodeExecution.isSelected());
+            }
+        });
+        
+        // Races every algorithm on the array currently shown
+        raceBtn.setOnAction(e -> new RaceView(controller.getArray()).show());
+        complexityBtn.setOnAction(e -> new ComplexityView().show());
+        
+        buttonSection.getChildren().addAll(startBtn, pauseBtn, resetBtn, shuffleBtn, saveTraceBtn, loadTraceBtn, raceBtn,
+            complexityBtn);
         return buttonSection;
     }
 
+    // Lookup loses the combo's type argument, so its value is checked instead of the combo cast
+    private String selectedAlgorithm() {
+        ComboBox<?> algorithmCombo = (ComboBox<?>) scene.lookup("#algorithmCombo");
+        return (String) algorithmCombo.getValue();
+    }
+
+    private FileChooser createTraceChooser() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Sort Trace");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Sort traces", "*.strace"));
+        return chooser;
+    }
+
+    private String formatSpeed(double speed) {
+        double stepsPerSecond = AnimationManager.stepsPerSecond(speed);
+        return stepsPerSecond < 10
+            ? String.format("%.1f steps/s", stepsPerSecond)
+            : String.format("%,.0f steps/s", stepsPerSecond);
+    }
+
     private Label createStyledLabel(String text) {
         Label label = new Label(text);
         label.setTextFill(Color.WHITE);
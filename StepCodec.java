@@ -0,0 +1,209 @@
+package com.visualizer.sorting;
+
+import java.nio.ByteBuffer;
+import java.util.function.IntFunction;
+
+/**
+ * The binary form of one step, shared by trace files and OffHeapTrace. Integers
+ * are varints, with zigzag for values that can be negative:
+ * a tag byte (type << 3 | range << 2 | mutation), the worker plus one, either the
+ * highlight count and delta-encoded indices or the range start and length, the
+ * mutation operands and, for a WRITE, the value it overwrote, the from..to runs a
+ * marking step newly marked sorted, and the description as its StepTemplate id
+ * and two operands. Ids only hold within one process; a trace file keeps the key
+ * of every id in its footer and decodes through that table. Every record ends with its own length as a varint
+ * with the bytes reversed, so records can be walked backwards as well as forwards.
+ */
+final class StepCodec {
+    private static final SortStep.StepType[] STEP_TYPES = SortStep.StepType.values();
+    private static final SortStep.Mutation[] MUTATIONS = SortStep.Mutation.values();
+    private static final int[] NO_RUNS = new int[0];
+
+    private StepCodec() {
+    }
+
+    // Upper bound on the bytes encode writes for this step
+    public static int maxEncodedSize(SortStep step) {
+        int highlightBytes = step.isRange() ? 10 : 5 + 5 * step.getHighlightCount();
+        int undoBytes = 5 + 5 * step.getNewlySorted().length;
+        return 1 + 5 + highlightBytes + 15 + undoBytes + 15 + 5;
+    }
+
+    public static void encode(SortStep step, ByteBuffer out) {
+        int start = out.position();
+        out.put((byte) (step.getType().ordinal() << 3 | (step.isRange() ? 4 : 0) | step.getMutation().ordinal()));
+        putVarint(out, step.getWorker() + 1);
+
+        if (step.isRange()) {
+            putVarint(out, step.getRangeStart());
+            putVarint(out, step.getHighlightCount());
+        } else {
+            int[] highlight = step.getHighlightIndices();
+            putVarint(out, highlight.length);
+            int previous = 0;
+            for (int index : highlight) {
+                putVarint(out, zigzag(index - previous));
+                previous = index;
+            }
+        }
+
+        switch (step.getMutation()) {
+            case SWAP:
+                putVarint(out, step.getFirst());
+                putVarint(out, step.getSecond());
+                break;
+            case WRITE:
+                putVarint(out, step.getFirst());
+                putVarint(out, zigzag(step.getSecond()));
+                putVarint(out, zigzag(step.getPrevious()));
+                break;
+            default:
+                break;
+        }
+        if (marksSorted(step.getType())) {
+            int[] runs = step.getNewlySorted();
+            putVarint(out, runs.length / 2);
+            int previous = 0;
+            for (int i = 0; i < runs.length; i += 2) {
+                putVarint(out, zigzag(runs[i] - previous));
+                putVarint(out, runs[i + 1] - runs[i]);
+                previous = runs[i + 1];
+            }
+        }
+
+        putVarint(out, step.getTemplate().getId());
+        putVarint(out, zigzag(step.getOperand1()));
+        putVarint(out, zigzag(step.getOperand2()));
+        putReversedVarint(out, out.position() - start);
+    }
+
+    // Templates are looked up by id in templates, StepTemplate::byId for a trace of this process
+    public static SortStep decode(ByteBuffer in, IntFunction<StepTemplate> templates) {
+        int start = in.position();
+        int tag = in.get() & 0xFF;
+        SortStep.StepType type = STEP_TYPES[tag >>> 3];
+        boolean range = (tag & 0x4) != 0;
+        SortStep.Mutation mutation = MUTATIONS[tag & 0x3];
+        int worker = (int) getVarint(in) - 1;
+
+        int[] highlight = null;
+        int rangeStart = 0;
+        int rangeLength = 0;
+        if (range) {
+            rangeStart = (int) getVarint(in);
+            rangeLength = (int) getVarint(in);
+        } else {
+            highlight = new int[(int) getVarint(in)];
+            int previous = 0;
+            for (int i = 0; i < highlight.length; i++) {
+                previous += (int) unzigzag(getVarint(in));
+                highlight[i] = previous;
+            }
+        }
+
+        int first = 0;
+        int second = 0;
+        int previous = 0;
+        switch (mutation) {
+            case SWAP:
+                first = (int) getVarint(in);
+                second = (int) getVarint(in);
+                break;
+            case WRITE:
+                first = (int) getVarint(in);
+                second = (int) unzigzag(getVarint(in));
+                previous = (int) unzigzag(getVarint(in));
+                break;
+            default:
+                break;
+        }
+        int[] newlySorted = NO_RUNS;
+        if (marksSorted(type)) {
+            newlySorted = new int[(int) getVarint(in) * 2];
+            int end = 0;
+            for (int i = 0; i < newlySorted.length; i += 2) {
+                newlySorted[i] = end + (int) unzigzag(getVarint(in));
+                end = newlySorted[i] + (int) getVarint(in);
+                newlySorted[i + 1] = end;
+            }
+        }
+
+        StepTemplate template = templates.apply((int) getVarint(in));
+        int operand1 = (int) unzigzag(getVarint(in));
+        int operand2 = (int) unzigzag(getVarint(in));
+        SortStep step = range
+                ? new SortStep(type, rangeStart, rangeStart + rangeLength - 1, template, operand1, operand2)
+                : new SortStep(type, highlight, template, operand1, operand2, mutation, first, second);
+        step.setWorker(worker);
+        step.setUndo(previous, newlySorted);
+        // The trailing length is only needed when walking backwards; read past, so a short buffer underflows
+        for (int i = varintSize(in.position() - start); i > 0; i--) {
+            in.get();
+        }
+        return step;
+    }
+
+    // Position of the first byte of the record that ends just before end
+    public static int recordStart(ByteBuffer in, int end) {
+        int length = 0;
+        int shift = 0;
+        int position = end;
+        int b;
+        do {
+            b = in.get(--position) & 0xFF;
+            length |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return position - length;
+    }
+
+    private static boolean marksSorted(SortStep.StepType type) {
+        return type == SortStep.StepType.SORTED || type == SortStep.StepType.MERGED
+                || type == SortStep.StepType.COMPLETED;
+    }
+
+    public static void putVarint(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    // A varint written last group first, so reading back from the end sees it in order
+    private static void putReversedVarint(ByteBuffer out, int value) {
+        int bytes = varintSize(value);
+        for (int i = bytes - 1; i >= 0; i--) {
+            int group = (value >>> (7 * i)) & 0x7F;
+            out.put((byte) (i < bytes - 1 ? group | 0x80 : group));
+        }
+    }
+
+    private static int varintSize(int value) {
+        int bytes = 1;
+        while ((value >>> (7 * bytes)) != 0 && bytes < 5) {
+            bytes++;
+        }
+        return bytes;
+    }
+
+    public static long getVarint(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.get() & 0xFF;
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    public static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    public static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,190 @@
+package com.visualizer.sorting;
+
+import java.util.function.Consumer;
+
+import com.visualizer.sorting.SortStep.Mutation;
+import com.visualizer.sorting.SortStep.StepType;
+
+/**
+ * Where a SortAlgorithm reports its steps. Each call describes one step by its
+ * parts, so a sink decides whether a SortStep is ever built: Streaming and
+ * Recording build one per call for playback and traces, while Counting and NONE
+ * only look at the type and mutation and allocate nothing. The same algorithm
+ * code therefore runs fully traced in the visualizer and at full speed in the
+ * benchmarks.
+ */
+public interface StepSink {
+    // Discards every step
+    StepSink NONE = new None();
+
+    /** Highlights i and j; a negative index is left out, so COMPLETED passes -1, -1. */
+    void highlight(StepType type, int i, int j, StepTemplate template, int operand1, int operand2);
+
+    /** Highlights from..to inclusive. */
+    void highlightRange(StepType type, int from, int to, StepTemplate template, int operand1, int operand2);
+
+    /** Swaps and highlights i and j. */
+    void swap(StepType type, int i, int j, StepTemplate template, int operand1, int operand2);
+
+    /** Highlights i and j as highlight does, and stores value at index. */
+    void write(StepType type, int i, int j, StepTemplate template, int operand1, int operand2,
+               int index, int value);
+
+    /** A step that is already built, as ParallelMergeSort hands on its workers' batches. */
+    void accept(SortStep step);
+
+    /**
+     * A sink one worker thread of a parallel algorithm can use on its own, without
+     * locking, or null if steps have to come back here built and in order through
+     * accept. What a worker sink saw is added back with join.
+     */
+    default StepSink forWorker() {
+        return null;
+    }
+
+    /** Adds in a sink from forWorker once its worker has finished with it. */
+    default void join(StepSink worker) {
+    }
+
+    // Builds a SortStep per call and hands it to a consumer
+    class Streaming implements StepSink {
+        private static final int[] NO_INDICES = new int[0];
+
+        private final Consumer<SortStep> target;
+
+        public Streaming(Consumer<SortStep> target) {
+            this.target = target;
+        }
+
+        private static int[] indices(int i, int j) {
+            if (i < 0) {
+                return j < 0 ? NO_INDICES : new int[]{j};
+            }
+            return j < 0 ? new int[]{i} : new int[]{i, j};
+        }
+
+        @Override
+        public void highlight(StepType type, int i, int j, StepTemplate template, int operand1, int operand2) {
+            target.accept(new SortStep(type, indices(i, j), template, operand1, operand2));
+        }
+
+        @Override
+        public void highlightRange(StepType type, int from, int to, StepTemplate template,
+                                   int operand1, int operand2) {
+            target.accept(new SortStep(type, from, to, template, operand1, operand2));
+        }
+
+        @Override
+        public void swap(StepType type, int i, int j, StepTemplate template, int operand1, int operand2) {
+            target.accept(new SortStep(type, new int[]{i, j}, template, operand1, operand2, Mutation.SWAP, i, j));
+        }
+
+        @Override
+        public void write(StepType type, int i, int j, StepTemplate template, int operand1, int operand2,
+                          int index, int value) {
+            target.accept(new SortStep(type, indices(i, j), template, operand1, operand2,
+                    Mutation.WRITE, index, value));
+        }
+
+        @Override
+        public void accept(SortStep step) {
+            target.accept(step);
+        }
+    }
+
+    // Keeps every step in a SortTrace
+    class Recording extends Streaming {
+        private final SortTrace trace;
+
+        public Recording(SortTrace trace) {
+            super(trace::add);
+            this.trace = trace;
+        }
+
+        public SortTrace getTrace() {
+            return trace;
+        }
+    }
+
+    // Feeds SortingStatistics from the parts of each step, without building it
+    class Counting implements StepSink {
+        private final SortingStatistics statistics;
+
+        public Counting(SortingStatistics statistics) {
+            this.statistics = statistics;
+        }
+
+        public SortingStatistics getStatistics() {
+            return statistics;
+        }
+
+        @Override
+        public void highlight(StepType type, int i, int j, StepTemplate template, int operand1, int operand2) {
+            statistics.record(type, Mutation.NONE);
+        }
+
+        @Override
+        public void highlightRange(StepType type, int from, int to, StepTemplate template,
+                                   int operand1, int operand2) {
+            statistics.record(type, Mutation.NONE);
+        }
+
+        @Override
+        public void swap(StepType type, int i, int j, StepTemplate template, int operand1, int operand2) {
+            statistics.record(type, Mutation.SWAP);
+        }
+
+        @Override
+        public void write(StepType type, int i, int j, StepTemplate template, int operand1, int operand2,
+                          int index, int value) {
+            statistics.record(type, Mutation.WRITE);
+        }
+
+        @Override
+        public void accept(SortStep step) {
+            statistics.record(step);
+        }
+
+        @Override
+        public StepSink forWorker() {
+            return new Counting(new SortingStatistics(null));
+        }
+
+        @Override
+        public void join(StepSink worker) {
+            statistics.add(((Counting) worker).statistics);
+        }
+    }
+
+    final class None implements StepSink {
+        private None() {
+        }
+
+        @Override
+        public void highlight(StepType type, int i, int j, StepTemplate template, int operand1, int operand2) {
+        }
+
+        @Override
+        public void highlightRange(StepType type, int from, int to, StepTemplate template,
+                                   int operand1, int operand2) {
+        }
+
+        @Override
+        public void swap(StepType type, int i, int j, StepTemplate template, int operand1, int operand2) {
+        }
+
+        @Override
+        public void write(StepType type, int i, int j, StepTemplate template, int operand1, int operand2,
+                          int index, int value) {
+        }
+
+        @Override
+        public void accept(SortStep step) {
+        }
+
+        @Override
+        public StepSink forWorker() {
+            return this;
+        }
+    }
+}
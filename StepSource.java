@@ -0,0 +1,265 @@
+package com.visualizer.sorting;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Runs a sorting algorithm lazily and hands its steps out one at a time.
+ * The algorithm runs on a BackgroundTasks thread and blocks once a small number of steps
+ * is buffered, so the first step is ready almost immediately and lookahead stays
+ * bounded however long the run is. Steps handed out are kept in an OffHeapTrace so
+ * playback can seek back over them without the recording growing the heap.
+ *
+ * hasNext waits for the algorithm thread when nothing is buffered; isNextReady only
+ * polls, for callers on the JavaFX thread. Apart from close, a source is used by one
+ * thread at a time.
+ */
+class StepSource implements StepStream {
+    private static final int CHUNK_SIZE = 256;
+    private static final int MAX_BUFFERED_CHUNKS = 16;
+    private static final SortStep[] END = new SortStep[0];
+
+    private final int[] initialState;
+    private final String algorithmName;
+    private final OffHeapTrace history;
+    private final SortingStatistics generationStatistics;
+    private int nextIndex = 0;
+    private final BlockingQueue<SortStep[]> chunks = new ArrayBlockingQueue<>(MAX_BUFFERED_CHUNKS);
+    private final Future<?> producer;
+    private volatile boolean closed = false;
+    private volatile RuntimeException failure;
+    // Written once the algorithm returns; the volatile write also publishes the counters before it
+    private volatile long generationNanos = -1;
+    private Consumer<OffHeapTrace> completedTraceHandler;
+
+    private SortStep[] currentChunk = new SortStep[0];
+    private int position = 0;
+    private boolean finished = false;
+
+    public StepSource(String algorithmName, int[] array, BiConsumer<int[], Consumer<SortStep>> algorithm) {
+        this(algorithmName, array, algorithm, SortTrace.defaultCheckpointInterval(array.length));
+    }
+
+    public StepSource(String algorithmName, int[] array, BiConsumer<int[], Consumer<SortStep>> algorithm,
+                      int checkpointInterval) {
+        this.algorithmName = algorithmName;
+        this.initialState = array.clone();
+        this.history = new OffHeapTrace(initialState, checkpointInterval);
+        this.generationStatistics = new SortingStatistics(algorithmName);
+        // The algorithm sorts its own copy, so callers may share or reuse array
+        int[] working = initialState.clone();
+        this.producer = BackgroundTasks.GENERATION.submit(() -> generate(working, algorithm));
+    }
+
+    private void generate(int[] array, BiConsumer<int[], Consumer<SortStep>> algorithm) {
+        ChunkWriter writer = new ChunkWriter();
+        try {
+            generationStatistics.startTiming();
+            algorithm.accept(array, writer);
+            writer.flush();
+            generationStatistics.endTiming();
+            generationNanos = generationStatistics.getExecutionNanos();
+        } catch (CancellationException e) {
+            return;
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        try {
+            chunks.put(END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextIndex < history.size() || hasNextGenerated();
+    }
+
+    @Override
+    public SortStep next() {
+        if (nextIndex < history.size()) {
+            return history.get(nextIndex++);
+        }
+        if (!hasNextGenerated()) {
+            throw new NoSuchElementException();
+        }
+        SortStep step = currentChunk[position++];
+        history.add(step);
+        nextIndex++;
+        return step;
+    }
+
+    @Override
+    public boolean hasPrevious() {
+        return nextIndex > 0;
+    }
+
+    // Steps handed out are all in the history, so going back never touches the generator
+    @Override
+    public SortStep previous() {
+        if (nextIndex == 0) {
+            throw new NoSuchElementException();
+        }
+        return history.get(--nextIndex);
+    }
+
+    @Override
+    public boolean isNextReady() {
+        if (nextIndex < history.size() || position < currentChunk.length || finished || closed) {
+            return true;
+        }
+        SortStep[] chunk = chunks.poll();
+        if (chunk == null) {
+            return false;
+        }
+        acceptChunk(chunk);
+        return true;
+    }
+
+    // Generates up to stepCount first, so a seek past the steps recorded waits for the algorithm thread
+    public int seek(long stepCount, int[] state, BitSet sorted, SortingStatistics statistics) {
+        while (history.size() < stepCount && hasNextGenerated()) {
+            history.add(currentChunk[position++]);
+        }
+        int target = (int) Math.max(0, Math.min(stepCount, history.size()));
+        nextIndex = target;
+        return history.restoreState(target, state, sorted, statistics);
+    }
+
+    private boolean hasNextGenerated() {
+        if (position < currentChunk.length) {
+            return true;
+        }
+        if (finished || closed) {
+            return false;
+        }
+        try {
+            return acceptChunk(chunks.take());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Makes chunk the one steps are handed out from; false if it marks the end
+    private boolean acceptChunk(SortStep[] chunk) {
+        currentChunk = chunk;
+        position = 0;
+        if (chunk == END) {
+            finished = true;
+            if (failure != null) {
+                throw failure;
+            }
+            return false;
+        }
+        return true;
+    }
+
+    public int[] getInitialState() {
+        return initialState.clone();
+    }
+
+    public String getAlgorithm() {
+        return algorithmName;
+    }
+
+    public long getRecordedSteps() {
+        return history.size();
+    }
+
+    public long getCheckpointBytes() {
+        return history.getCheckpointBytes();
+    }
+
+    public long getTraceBytes() {
+        return history.getOffHeapBytes();
+    }
+
+    /**
+     * Counters and time of the algorithm thread, leaving out time spent waiting for
+     * playback to drain the buffer. Only safe to read once every step has been
+     * handed out, as END is queued after the last update, or once
+     * getGenerationNanos is no longer -1.
+     */
+    public SortingStatistics getGenerationStatistics() {
+        return generationStatistics;
+    }
+
+    /**
+     * Time the algorithm thread took, leaving out time spent waiting for playback,
+     * or -1 while it is still running. Safe to poll from any thread; once this is
+     * not -1, getGenerationStatistics is complete too.
+     */
+    public long getGenerationNanos() {
+        return generationNanos;
+    }
+
+    public int getArrayLength() {
+        return initialState.length;
+    }
+
+    /**
+     * Called on close with the recorded trace if the run was played to the end, so
+     * the trace can be kept instead of freed; the handler then owns it.
+     */
+    public void setCompletedTraceHandler(Consumer<OffHeapTrace> handler) {
+        this.completedTraceHandler = handler;
+    }
+
+    // Stops the algorithm thread, drops any buffered steps and frees the recorded ones
+    public void close() {
+        if (closed) return;
+        boolean complete = finished && failure == null;
+        closed = true;
+        currentChunk = END;
+        position = 0;
+        producer.cancel(true);
+        chunks.clear();
+        if (complete && completedTraceHandler != null) {
+            completedTraceHandler.accept(history);
+        } else {
+            history.close();
+        }
+    }
+
+    private class ChunkWriter implements Consumer<SortStep> {
+        private SortStep[] chunk = new SortStep[CHUNK_SIZE];
+        private int count = 0;
+
+        @Override
+        public void accept(SortStep step) {
+            generationStatistics.record(step);
+            chunk[count++] = step;
+            if (count == CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (closed) {
+                throw new CancellationException();
+            }
+            if (count == 0) {
+                return;
+            }
+            SortStep[] full = count == CHUNK_SIZE ? chunk : Arrays.copyOf(chunk, count);
+            long waitStart = System.nanoTime();
+            try {
+                chunks.put(full);
+            } catch (InterruptedException e) {
+                throw new CancellationException();
+            }
+            generationStatistics.excludeTime(System.nanoTime() - waitStart);
+            chunk = new SortStep[CHUNK_SIZE];
+            count = 0;
+        }
+    }
+}
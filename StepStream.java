@@ -0,0 +1,46 @@
+package com.visualizer.sorting;
+
+import java.util.BitSet;
+import java.util.Iterator;
+
+/**
+ * The steps of one sorting run as AnimationManager plays them: pulled in order,
+ * with the option of jumping to any step through the stream's checkpoints.
+ */
+interface StepStream extends Iterator<SortStep> {
+    int[] getInitialState();
+
+    // Name of the algorithm that produced the steps, as shown in the algorithm list
+    String getAlgorithm();
+
+    /**
+     * True if next, or hasNext, can be called without waiting for steps still being
+     * produced. A stream that has ended is ready, as hasNext then answers at once.
+     */
+    default boolean isNextReady() {
+        return true;
+    }
+
+    // True if a step has been returned since the start, so previous can go back over it
+    boolean hasPrevious();
+
+    // Moves back one step and returns it, so that the next call to next returns it again
+    SortStep previous();
+
+    // Steps that can be reached by seek without generating anything new
+    long getRecordedSteps();
+
+    /**
+     * Positions the stream so that the next step returned is step stepCount, and
+     * writes the array, sorted marks and statistics as they are at that point.
+     * Returns how many steps were replayed on top of the nearest checkpoint.
+     */
+    int seek(long stepCount, int[] state, BitSet sorted, SortingStatistics statistics);
+
+    long getCheckpointBytes();
+
+    // Everything the stream holds for seeking: recorded steps and checkpoints, or the mapped file
+    long getTraceBytes();
+
+    void close();
+}
@@ -0,0 +1,129 @@
+package com.visualizer.sorting;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A step description. A step stores its template and up to two int operands, and
+ * the text is only formatted when the step is shown. Templates are defined once,
+ * under a key that stays the same from run to run, and trace files store that key,
+ * so an algorithm from another package can define its own in static fields of its
+ * provider class; prefixing keys with the package keeps them apart. The ones below
+ * are shared by the bundled algorithms.
+ */
+public final class StepTemplate {
+    private static final Map<String, StepTemplate> BY_KEY = new ConcurrentHashMap<>();
+    // In definition order; the index is the id OffHeapTrace and trace files encode
+    private static final List<StepTemplate> BY_ID = new CopyOnWriteArrayList<>();
+
+    public static final StepTemplate COMPARING = define("COMPARING", "🔍 Comparing %d and %d");
+    public static final StepTemplate COMPARING_WITH = define("COMPARING_WITH", "🔍 Comparing %d with %d");
+    public static final StepTemplate COMPARING_WITH_PIVOT =
+        define("COMPARING_WITH_PIVOT", "🔍 Comparing %d with pivot %d");
+    public static final StepTemplate SWAPPED = define("SWAPPED", "🔄 Swapped %d and %d");
+    public static final StepTemplate ELEMENT_SORTED = define("ELEMENT_SORTED", "✅ Element at position %d is sorted");
+    public static final StepTemplate POSITION_CONFIRMED =
+        define("POSITION_CONFIRMED", "✅ Position %d confirmed sorted");
+    public static final StepTemplate POSITION_SORTED = define("POSITION_SORTED", "✅ Position %d sorted");
+    public static final StepTemplate FIRST_SORTED = define("FIRST_SORTED", "✅ First element is initially sorted");
+    public static final StepTemplate SELECTED_KEY =
+        define("SELECTED_KEY", "🎯 Selected %d to insert into sorted section");
+    public static final StepTemplate SHIFTING = define("SHIFTING", "➡️ Shifting %d one position right");
+    public static final StepTemplate INSERTED = define("INSERTED", "📍 Inserted %d at position %d");
+    public static final StepTemplate PREFIX_SORTED =
+        define("PREFIX_SORTED", "✅ Elements from index 0 to %d are now sorted");
+    public static final StepTemplate DIVIDING = define("DIVIDING", "🔄 Dividing array from %d to %d");
+    public static final StepTemplate MERGE_STARTING = define("MERGE_STARTING", "🛠️ Starting merge for range %d-%d");
+    public static final StepTemplate PLACING_LEFT =
+        define("PLACING_LEFT", "📥 Placing %d from left array at position %d");
+    public static final StepTemplate PLACING_RIGHT =
+        define("PLACING_RIGHT", "📥 Placing %d from right array at position %d");
+    public static final StepTemplate PLACING_REMAINING_LEFT =
+        define("PLACING_REMAINING_LEFT", "📥 Placing remaining %d from left array at position %d");
+    public static final StepTemplate PLACING_REMAINING_RIGHT =
+        define("PLACING_REMAINING_RIGHT", "📥 Placing remaining %d from right array at position %d");
+    public static final StepTemplate MERGED_RANGE = define("MERGED_RANGE", "✅ Merged range %d-%d successfully");
+    public static final StepTemplate FORKING = define("FORKING", "🔄 Dividing array from %d to %d across workers");
+    public static final StepTemplate PARTITIONING = define("PARTITIONING", "🔄 Processing partition from %d to %d");
+    public static final StepTemplate PIVOT_SELECTED = define("PIVOT_SELECTED", "🎯 Selected pivot: %d");
+    public static final StepTemplate PIVOT_PLACED =
+        define("PIVOT_PLACED", "📍 Placed pivot %d at its final position %d");
+    public static final StepTemplate PIVOT_SORTED =
+        define("PIVOT_SORTED", "✅ Pivot %d is now in its final sorted position %d");
+    public static final StepTemplate BUBBLE_COMPLETED = define("BUBBLE_COMPLETED", "🎉 Bubble Sort completed!");
+    public static final StepTemplate SELECTION_COMPLETED = define("SELECTION_COMPLETED", "🎉 Selection Sort completed!");
+    public static final StepTemplate INSERTION_COMPLETED = define("INSERTION_COMPLETED", "🎉 Insertion Sort completed!");
+    public static final StepTemplate MERGE_COMPLETED = define("MERGE_COMPLETED", "🎉 Merge Sort completed!");
+    public static final StepTemplate PARALLEL_MERGE_COMPLETED =
+        define("PARALLEL_MERGE_COMPLETED", "🎉 Parallel Merge Sort completed on %d worker threads!");
+    public static final StepTemplate QUICK_COMPLETED = define("QUICK_COMPLETED", "🎉 Quick Sort completed!");
+
+    private final String key;
+    private final String pattern;
+    private final int id;
+
+    private StepTemplate(String key, String pattern, int id) {
+        this.key = key;
+        this.pattern = pattern;
+        this.id = id;
+    }
+
+    /**
+     * The template for key, defining it the first time. Defining a key again with
+     * the same pattern returns the existing template; a different pattern is an error,
+     * as trace files would then show the wrong text.
+     */
+    public static synchronized StepTemplate define(String key, String pattern) {
+        StepTemplate existing = BY_KEY.get(key);
+        if (existing != null) {
+            if (!existing.pattern.equals(pattern)) {
+                throw new IllegalArgumentException("Step template " + key + " is already defined as \""
+                    + existing.pattern + "\"");
+            }
+            return existing;
+        }
+        StepTemplate template = new StepTemplate(key, pattern, BY_ID.size());
+        BY_ID.add(template);
+        BY_KEY.put(key, template);
+        return template;
+    }
+
+    // The template defined under key, or null if no algorithm loaded so far defines it
+    public static StepTemplate forKey(String key) {
+        return BY_KEY.get(key);
+    }
+
+    // Stands in for a key in a trace file whose algorithm is not on the class path; never defined
+    static StepTemplate unknown(String key) {
+        return new StepTemplate(key, "❔ " + key.replace("%", "%%") + " (%d, %d)", -1);
+    }
+
+    static StepTemplate byId(int id) {
+        return BY_ID.get(id);
+    }
+
+    // Keys of every template defined so far, in id order
+    static List<String> definedKeys() {
+        return BY_ID.stream().map(template -> template.key).toList();
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    int getId() {
+        return id;
+    }
+
+    // Operands the pattern does not use are ignored
+    public String format(int first, int second) {
+        return String.format(pattern, first, second);
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+}
@@ -0,0 +1,245 @@
+package com.visualizer.sorting;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Keeps the traces of finished runs so that running the same algorithm on the same
+ * array again replays the recording instead of regenerating it. Entries are keyed
+ * by algorithm, a hash of the input and the checkpoint interval, and the cache
+ * evicts least recently used traces to stay under its byte limit.
+ *
+ * The cache owns the OffHeapTrace of every entry. A trace that is evicted while
+ * a Replay is still reading it is freed when the last such Replay closes. All
+ * methods synchronize on the cache, so generation threads can use it too.
+ */
+class TraceCache {
+
+    static final class Key {
+        final String algorithm;
+        final long inputHash;
+        final int checkpointInterval;
+
+        Key(String algorithm, int[] input, int checkpointInterval) {
+            this.algorithm = algorithm;
+            this.inputHash = hash(input);
+            this.checkpointInterval = checkpointInterval;
+        }
+
+        // 64 bits, so different arrays of the same length practically never collide
+        private static long hash(int[] input) {
+            long hash = 0xcbf29ce484222325L ^ input.length;
+            for (int value : input) {
+                hash = (hash ^ value) * 0x100000001b3L;
+            }
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) return false;
+            Key key = (Key) other;
+            return inputHash == key.inputHash && checkpointInterval == key.checkpointInterval
+                    && algorithm.equals(key.algorithm);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(algorithm, inputHash, checkpointInterval);
+        }
+    }
+
+    private static final class Entry {
+        final OffHeapTrace trace;
+        final String algorithm;
+        final int[] initialState;
+        final SortingStatistics generationStatistics;
+        final long bytes;
+        int readers = 0;
+        boolean evicted = false;
+
+        Entry(OffHeapTrace trace, String algorithm, int[] initialState, SortingStatistics generationStatistics) {
+            this.trace = trace;
+            this.algorithm = algorithm;
+            this.initialState = initialState;
+            this.generationStatistics = generationStatistics;
+            this.bytes = trace.getOffHeapBytes() + initialState.length * 4L;
+        }
+    }
+
+    private final long maxBytes;
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    public TraceCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * A Replay of the cached run for this key and input, or null on a miss.
+     * The input is compared in full, so a hash collision is only a miss.
+     */
+    public synchronized Replay get(Key key, int[] input) {
+        Entry entry = entries.get(key);
+        if (entry == null || !Arrays.equals(entry.initialState, input)) {
+            misses++;
+            return null;
+        }
+        hits++;
+        entry.readers++;
+        return new Replay(entry);
+    }
+
+    /**
+     * Adds a fully generated trace, taking ownership of it and of initialState.
+     * A trace larger than the whole cache is freed straight away instead.
+     */
+    public synchronized void put(Key key, OffHeapTrace trace, String algorithm, int[] initialState,
+                                 SortingStatistics generationStatistics) {
+        Entry entry = new Entry(trace, algorithm, initialState, generationStatistics);
+        if (entry.bytes > maxBytes) {
+            trace.close();
+            return;
+        }
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            bytes -= previous.bytes;
+            retire(previous);
+        }
+        bytes += entry.bytes;
+
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            Entry evicted = eldest.next();
+            if (evicted == entry) continue;
+            eldest.remove();
+            bytes -= evicted.bytes;
+            evictions++;
+            retire(evicted);
+        }
+    }
+
+    private void retire(Entry entry) {
+        entry.evicted = true;
+        if (entry.readers == 0) {
+            entry.trace.close();
+        }
+    }
+
+    private synchronized void release(Entry entry) {
+        entry.readers--;
+        if (entry.evicted && entry.readers == 0) {
+            entry.trace.close();
+        }
+    }
+
+    public synchronized void clear() {
+        for (Entry entry : entries.values()) {
+            retire(entry);
+        }
+        entries.clear();
+        bytes = 0;
+    }
+
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+    public synchronized long getEvictions() { return evictions; }
+    public synchronized long getBytes() { return bytes; }
+    public synchronized int size() { return entries.size(); }
+
+    /**
+     * Plays a cached trace. Steps are decoded from the off-heap recording, so a
+     * replay starts at once and can seek anywhere without generating anything.
+     * Each replay reads through its own cursor, so replays of the same trace on
+     * different threads do not move each other's position.
+     */
+    final class Replay implements StepStream {
+        private final Entry entry;
+        private final OffHeapTrace.Cursor cursor;
+        private int nextIndex = 0;
+        private boolean closed = false;
+
+        private Replay(Entry entry) {
+            this.entry = entry;
+            this.cursor = entry.trace.newCursor();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !closed && nextIndex < entry.trace.size();
+        }
+
+        @Override
+        public SortStep next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return cursor.get(nextIndex++);
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return !closed && nextIndex > 0;
+        }
+
+        @Override
+        public SortStep previous() {
+            if (!hasPrevious()) {
+                throw new NoSuchElementException();
+            }
+            return cursor.get(--nextIndex);
+        }
+
+        @Override
+        public int[] getInitialState() {
+            return entry.initialState.clone();
+        }
+
+        @Override
+        public String getAlgorithm() {
+            return entry.algorithm;
+        }
+
+        @Override
+        public long getRecordedSteps() {
+            return entry.trace.size();
+        }
+
+        @Override
+        public int seek(long stepCount, int[] state, BitSet sorted, SortingStatistics statistics) {
+            int target = (int) Math.max(0, Math.min(stepCount, entry.trace.size()));
+            nextIndex = target;
+            return cursor.restoreState(target, state, sorted, statistics);
+        }
+
+        @Override
+        public long getCheckpointBytes() {
+            return entry.trace.getCheckpointBytes();
+        }
+
+        @Override
+        public long getTraceBytes() {
+            return entry.trace.getOffHeapBytes();
+        }
+
+        // Statistics of the run that was recorded, including its generation time
+        public SortingStatistics getGenerationStatistics() {
+            return entry.generationStatistics;
+        }
+
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+            release(entry);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.visualizer.sorting;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Writes the steps of a sorting run to a compact binary trace file, to be
+ * replayed later by MappedTrace. Pass it to any SortingAlgorithms method as the
+ * step consumer.
+ *
+ * Layout, with all integers varint-encoded unless noted:
+ *   header      magic (4 bytes), version (1 byte), algorithm name, checkpoint interval,
+ *               array length, initial values
+ *   records     a step as laid out by StepCodec;
+ *               a checkpoint is the tag 0xFF, every array value, the sorted marks and
+ *               the statistics counters
+ *   table       (step index, file offset) of every checkpoint, 8 + 8 bytes each
+ *   templates   the count, then the StepTemplate key of every id the records may use, in id order
+ *   footer      table offset, templates offset, checkpoint count, step count (8 bytes each),
+ *               magic (4 bytes)
+ */
+class TraceFileWriter implements Consumer<SortStep>, Closeable {
+    static final int MAGIC = 0x53545243; // "STRC"
+    static final int VERSION = 7;
+    static final int CHECKPOINT_TAG = 0xFF;
+    static final int FOOTER_BYTES = 36;
+
+    private final OutputStream out;
+    private final int checkpointInterval;
+    private final int[] workingState;
+    private final BitSet workingSorted = new BitSet();
+    private final SortingStatistics workingStatistics = new SortingStatistics(null);
+    private final List<long[]> checkpointTable = new ArrayList<>();
+    private ByteBuffer scratch = ByteBuffer.allocate(256);
+    private long offset = 0;
+    private long stepCount = 0;
+
+    public TraceFileWriter(Path file, String algorithmName, int[] initialState, int checkpointInterval)
+            throws IOException {
+        this.out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16);
+        this.checkpointInterval = checkpointInterval;
+        this.workingState = initialState.clone();
+
+        writeInt(MAGIC);
+        writeByte(VERSION);
+        writeString(algorithmName);
+        writeVarint(checkpointInterval);
+        writeVarint(initialState.length);
+        for (int value : initialState) {
+            writeVarint(zigzag(value));
+        }
+        writeCheckpoint();
+    }
+
+    @Override
+    public void accept(SortStep step) {
+        try {
+            step.recordUndo(workingState, workingSorted);
+            writeStep(step);
+            step.applyTo(workingState);
+            step.applySortedMarks(workingSorted, workingState.length);
+            workingStatistics.record(step);
+            stepCount++;
+            if (stepCount % checkpointInterval == 0) {
+                writeCheckpoint();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeStep(SortStep step) throws IOException {
+        if (scratch.capacity() < StepCodec.maxEncodedSize(step)) {
+            scratch = ByteBuffer.allocate(StepCodec.maxEncodedSize(step));
+        }
+        scratch.clear();
+        StepCodec.encode(step, scratch);
+        out.write(scratch.array(), 0, scratch.position());
+        offset += scratch.position();
+    }
+
+    private void writeCheckpoint() throws IOException {
+        checkpointTable.add(new long[]{stepCount, offset});
+        writeByte(CHECKPOINT_TAG);
+        for (int value : workingState) {
+            writeVarint(zigzag(value));
+        }
+        long[] sortedWords = workingSorted.toLongArray();
+        writeVarint(sortedWords.length);
+        for (long word : sortedWords) {
+            writeLong(word);
+        }
+        writeVarint(workingStatistics.getComparisons());
+        writeVarint(workingStatistics.getSwaps());
+        writeVarint(workingStatistics.getArrayAccesses());
+    }
+
+    @Override
+    public void close() throws IOException {
+        long tableOffset = offset;
+        for (long[] entry : checkpointTable) {
+            writeLong(entry[0]);
+            writeLong(entry[1]);
+        }
+        // Every template defined so far covers every id written, whichever algorithm defined it
+        long templatesOffset = offset;
+        List<String> keys = StepTemplate.definedKeys();
+        writeVarint(keys.size());
+        for (String key : keys) {
+            writeString(key);
+        }
+        writeLong(tableOffset);
+        writeLong(templatesOffset);
+        writeLong(checkpointTable.size());
+        writeLong(stepCount);
+        writeInt(MAGIC);
+        out.close();
+    }
+
+    public long getStepCount() {
+        return stepCount;
+    }
+
+    public SortingStatistics getStatistics() {
+        return workingStatistics;
+    }
+
+    public long getBytesWritten() {
+        return offset;
+    }
+
+    private static long zigzag(long value) {
+        return StepCodec.zigzag(value);
+    }
+
+    private void writeByte(int value) throws IOException {
+        out.write(value);
+        offset++;
+    }
+
+    private void writeVarint(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        writeByte((int) value);
+    }
+
+    private void writeInt(int value) throws IOException {
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            writeByte((value >>> shift) & 0xFF);
+        }
+    }
+
+    private void writeLong(long value) throws IOException {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            writeByte((int) (value >>> shift) & 0xFF);
+        }
+    }
+
+    private void writeString(String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length);
+        out.write(bytes);
+        offset += bytes.length;
+    }
+}
@@ -1,5 +1,6 @@
 package com.visualizer.sorting;
 
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -7,19 +8,59 @@ import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 
 public class VisualizerController {
+    // Above this size a node per bar gets too heavy and bars are painted on a canvas
+    private static final int NODE_RENDERER_LIMIT = 100;
+    // Steps written between progress updates of a background save
+    private static final int PROGRESS_INTERVAL = 1 << 16;
+    private static final long TRACE_CACHE_BYTES = 256L << 20;
+
     private int[] array;
     private int arraySize = 50;
-    private BarVisualizer barVisualizer;
+    private InputDistribution distribution = InputDistribution.UNIFORM;
+    private BarRenderer barVisualizer;
+    private BarVisualizer nodeVisualizer;
+    private CanvasBarVisualizer canvasVisualizer;
     private SortingAlgorithms sortingAlgorithms;
     private AnimationManager animationManager;
+    private final TraceCache traceCache = new TraceCache(TRACE_CACHE_BYTES);
     private CodeTracker codeTracker;
+    private PerformanceHud performanceHud;
     private VBox visualizationArea;
     private Label statusLabel;
-    private boolean isRunning = false;
+    private Slider scrubBar;
+    private ToggleButton reverseToggle;
+    private Label stepLabel;
+    private VBox statisticsPanel;
+    private Label comparisonsLabel;
+    private Label swapsLabel;
+    private Label accessesLabel;
+    private Label sortTimeLabel;
+    private HBox progressBox;
+    private Label progressLabel;
+    // Set while a trace is generated in the background; Reset sets it to stop the task
+    private AtomicBoolean generationCancelled;
+    private Future<?> generationTask;
+    // Set while a live or cached run plays, -1 until its algorithm has finished; trace files carry no generation time
+    private LongSupplier generationNanos;
+    private boolean updatingScrubBar = false;
+    // Steps between full checkpoints of a run; 0 picks SortTrace's default for the array size
+    private int checkpointInterval = 0;
+    // Written on the FX thread, but read by anything checking whether a run is in progress
+    private volatile boolean isRunning = false;
     
     public VisualizerController() {
         initializeComponents();
@@ -27,7 +68,9 @@ public class VisualizerController {
     }
     
     private void initializeComponents() {
-        barVisualizer = new BarVisualizer();
+        nodeVisualizer = new BarVisualizer();
+        canvasVisualizer = new CanvasBarVisualizer();
+        barVisualizer = nodeVisualizer;
         sortingAlgorithms = new SortingAlgorithms();
         animationManager = new AnimationManager();
         
@@ -44,13 +87,174 @@ public class VisualizerController {
             "-fx-padding: 10;"
         );
         
-        visualizationArea.getChildren().addAll(barVisualizer.getVisualizationPane(), statusLabel);
+        performanceHud = new PerformanceHud(animationManager::getTraceBytes);
+        
+        visualizationArea.getChildren().addAll(
+            barVisualizer.getVisualizationPane(), createTimelineControls(), statusLabel, createProgressBox(),
+            performanceHud.getNode());
+        
+        statisticsPanel = createStatisticsPanel();
+    }
+    
+    private VBox createStatisticsPanel() {
+        VBox panel = new VBox(6);
+        panel.setPadding(new Insets(10));
+        panel.setStyle(
+            "-fx-background-color: rgba(255, 255, 255, 0.1); " +
+            "-fx-background-radius: 10;"
+        );
+        
+        Label title = new Label("📈 Statistics");
+        title.setTextFill(Color.WHITE);
+        title.setFont(Font.font("Arial", FontWeight.BOLD, 14));
+        
+        comparisonsLabel = createStatisticLabel();
+        swapsLabel = createStatisticLabel();
+        accessesLabel = createStatisticLabel();
+        sortTimeLabel = createStatisticLabel();
+        
+        panel.getChildren().addAll(title, comparisonsLabel, swapsLabel, accessesLabel, sortTimeLabel);
+        updateStatistics(null);
+        return panel;
+    }
+    
+    private Label createStatisticLabel() {
+        Label label = new Label();
+        label.setTextFill(Color.WHITE);
+        label.setFont(Font.font("Arial", FontWeight.NORMAL, 12));
+        return label;
+    }
+    
+    // Shows the counters as of the current playback position, or zeros with no run loaded
+    private void updateStatistics(SortingStatistics statistics) {
+        comparisonsLabel.setText(String.format("Comparisons: %,d", statistics != null ? statistics.getComparisons() : 0));
+        swapsLabel.setText(String.format("Swaps: %,d", statistics != null ? statistics.getSwaps() : 0));
+        accessesLabel.setText(String.format("Array accesses: %,d", statistics != null ? statistics.getArrayAccesses() : 0));
+        long nanos = generationNanos != null ? generationNanos.getAsLong() : -1;
+        if (statistics == null || nanos < 0 || animationManager.isRunning() || animationManager.isPaused()) {
+            sortTimeLabel.setText("Sort time: -");
+        } else {
+            sortTimeLabel.setText(String.format("Sort time: %.3f ms", nanos / 1_000_000.0));
+        }
+    }
+    
+    private HBox createTimelineControls() {
+        HBox timelineControls = new HBox(10);
+        timelineControls.setAlignment(Pos.CENTER);
+        
+        scrubBar = new Slider(0, 1, 0);
+        scrubBar.setStyle("-fx-base: #4a90e2;");
+        scrubBar.setDisable(true);
+        HBox.setHgrow(scrubBar, Priority.ALWAYS);
+        scrubBar.valueProperty().addListener((obs, oldVal, newVal) -> {
+            if (!updatingScrubBar) {
+                seekTo(Math.round(newVal.doubleValue()));
+            }
+        });
+        
+        stepLabel = new Label("Step 0");
+        stepLabel.setTextFill(Color.WHITE);
+        stepLabel.setFont(Font.font("Arial", FontWeight.BOLD, 12));
+        stepLabel.setMinWidth(140);
+        
+        Label checkpointLabel = new Label("Checkpoint every:");
+        checkpointLabel.setTextFill(Color.WHITE);
+        checkpointLabel.setFont(Font.font("Arial", FontWeight.BOLD, 12));
+        
+        ComboBox<String> checkpointCombo = new ComboBox<>();
+        checkpointCombo.getItems().addAll("Auto", "256", "1,024", "4,096", "16,384", "65,536");
+        checkpointCombo.setValue("Auto");
+        checkpointCombo.setStyle("-fx-base: #4a90e2; -fx-background-radius: 5;");
+        checkpointCombo.setOnAction(e -> {
+            String value = checkpointCombo.getValue();
+            checkpointInterval = value.equals("Auto") ? 0 : Integer.parseInt(value.replace(",", ""));
+        });
+        
+        Button stepBackBtn = createTimelineButton(new Button("⏮️"));
+        stepBackBtn.setOnAction(e -> stepBackward());
+        Button stepForwardBtn = createTimelineButton(new Button("⏭️"));
+        stepForwardBtn.setOnAction(e -> stepForward());
+        reverseToggle = createTimelineButton(new ToggleButton("◀️ Reverse"));
+        reverseToggle.setOnAction(e -> setReverse(reverseToggle.isSelected()));
+        for (ButtonBase button : List.of(stepBackBtn, reverseToggle, stepForwardBtn)) {
+            button.disableProperty().bind(scrubBar.disableProperty());
+        }
+        
+        timelineControls.getChildren().addAll(stepBackBtn, reverseToggle, stepForwardBtn, scrubBar, stepLabel,
+            checkpointLabel, checkpointCombo);
+        return timelineControls;
+    }
+    
+    private <T extends ButtonBase> T createTimelineButton(T button) {
+        button.setStyle("-fx-base: #4a90e2; -fx-font-weight: bold; -fx-background-radius: 5;");
+        button.setFocusTraversable(false);
+        return button;
+    }
+    
+    private HBox createProgressBox() {
+        progressBox = new HBox(10);
+        progressBox.setAlignment(Pos.CENTER);
+        
+        // The step count of a run is not known until it finishes
+        ProgressBar progressBar = new ProgressBar(ProgressBar.INDETERMINATE_PROGRESS);
+        progressBar.setPrefWidth(200);
+        
+        progressLabel = new Label();
+        progressLabel.setTextFill(Color.WHITE);
+        progressLabel.setFont(Font.font("Arial", FontWeight.BOLD, 12));
+        
+        progressBox.getChildren().addAll(progressBar, progressLabel);
+        progressBox.setVisible(false);
+        progressBox.setManaged(false);
+        return progressBox;
+    }
+    
+    private void showProgress(String message) {
+        progressLabel.setText(message);
+        progressBox.setVisible(message != null);
+        progressBox.setManaged(message != null);
+    }
+    
+    private void seekTo(long stepCount) {
+        animationManager.seek(stepCount, this::showSeek);
+    }
+    
+    private void showSeek() {
+        updateScrubBar();
+        updateStatistics(animationManager.getStatistics());
+        updateStatus(String.format("⏩ Jumped to step %,d in %.2f ms (replayed %,d steps, checkpoints use %,d KB)",
+            animationManager.getPlayedSteps(),
+            animationManager.getLastSeekNanos() / 1_000_000.0,
+            animationManager.getLastSeekReplayedSteps(),
+            animationManager.getCheckpointBytes() / 1024));
+    }
+    
+    private void updateScrubBar() {
+        updatingScrubBar = true;
+        scrubBar.setMax(Math.max(1, animationManager.getRecordedSteps()));
+        scrubBar.setValue(animationManager.getPlayedSteps());
+        updatingScrubBar = false;
+        stepLabel.setText(String.format("Step %,d / %,d",
+            animationManager.getPlayedSteps(), animationManager.getRecordedSteps()));
     }
     
     public VBox getVisualizationArea() {
         return visualizationArea;
     }
+    
+    // A copy of the current input, for views that run their own sorts on it
+    public int[] getArray() {
+        return array.clone();
+    }
+    
+    public VBox getStatisticsPanel() {
+        return statisticsPanel;
+    }
 
+    public void setPerformanceHudVisible(boolean visible) {
+        performanceHud.setVisible(visible);
+    }
+    
     public void setCodeTracker(CodeTracker codeTracker) {
         this.codeTracker = codeTracker;
     }
@@ -62,39 +266,51 @@ public class VisualizerController {
         }
     }
     
-    public void generateRandomArray() {
-        array = new int[arraySize];
-        for (int i = 0; i < arraySize; i++) {
-            array[i] = ThreadLocalRandom.current().nextInt(10, 400);
+    public void setDistribution(InputDistribution distribution) {
+        if (!isRunning) {
+            this.distribution = distribution;
+            generateRandomArray();
         }
+    }
+    
+    // A fresh seed each time, like the uniform arrays this used to generate
+    public void generateRandomArray() {
+        array = distribution.generate(arraySize, ThreadLocalRandom.current().nextLong());
+        selectRenderer();
         barVisualizer.updateVisualization(array);
-        updateStatus("Array generated with " + arraySize + " elements 📊");
+        updateStatus(String.format("%s array generated with %,d elements 📊", distribution.getLabel(), arraySize));
+    }
+    
+    private void selectRenderer() {
+        BarRenderer renderer = arraySize > NODE_RENDERER_LIMIT ? canvasVisualizer : nodeVisualizer;
+        if (renderer != barVisualizer) {
+            renderer.resetAll();
+            visualizationArea.getChildren().set(0, renderer.getVisualizationPane());
+            barVisualizer = renderer;
+        }
     }
     
     public void shuffleArray() {
         if (!isRunning) {
-            List<Integer> list = new ArrayList<>();
-            for (int value : array) {
-                list.add(value);
-            }
-            Collections.shuffle(list);
-            for (int i = 0; i < array.length; i++) {
-                array[i] = list.get(i);
-            }
+            InputDistribution.shuffle(array, ThreadLocalRandom.current().nextLong());
             barVisualizer.updateVisualization(array);
             updateStatus("Array shuffled! 🎲");
         }
     }
     
     public void resetArray() {
-        if (isRunning) {
-            animationManager.stopAnimation();
-            isRunning = false;
-        }
+        cancelGeneration();
+        // Also frees the trace of a finished run, which is kept for scrubbing until now
+        animationManager.stopAnimation();
+        isRunning = false;
         barVisualizer.resetAll();
+        scrubBar.setDisable(true);
+        generationNanos = null;
+        updateStatistics(null);
 
         if (codeTracker != null) {
             codeTracker.clearHighlight();
+            codeTracker.clearHeatMap();
         }
         
         updateStatus("Ready to sort! 🎯");
@@ -103,106 +319,212 @@ public class VisualizerController {
     public void startSorting(String algorithm, double speed, boolean showCode) {
         if (isRunning) return;
         
+        // Closing the last run first lets a finished one reach the cache before the lookup
+        animationManager.stopAnimation();
+        TraceCache.Key key = new TraceCache.Key(algorithm, array, checkpointIntervalFor(array.length));
+        TraceCache.Replay replay = traceCache.get(key, array);
+        if (replay != null) {
+            // A run is only cached once it finished, so its time is already final
+            long cachedNanos = replay.getGenerationStatistics().getExecutionNanos();
+            generationNanos = () -> cachedNanos;
+            play(replay, speed, showCode);
+            updateStatus(String.format("♻️ Replaying cached %s run (%,d hits, %,d misses, %,d KB cached)",
+                algorithm, traceCache.getHits(), traceCache.getMisses(), traceCache.getBytes() / 1024));
+            return;
+        }
+        
+        BiConsumer<int[], Consumer<SortStep>> sorter = sortingAlgorithms.forName(algorithm);
+        if (sorter == null) return;
+
+        // Steps are pulled from the source as playback needs them
+        int[] input = array.clone();
+        StepSource source = new StepSource(algorithm, array.clone(), sorter, key.checkpointInterval);
+        SortingStatistics statistics = source.getGenerationStatistics();
+        source.setCompletedTraceHandler(trace -> traceCache.put(key, trace, algorithm, input, statistics));
+        generationNanos = source::getGenerationNanos;
+        play(source, speed, showCode);
+    }
+    
+    private int checkpointIntervalFor(int arrayLength) {
+        return checkpointInterval > 0 ? checkpointInterval : SortTrace.defaultCheckpointInterval(arrayLength);
+    }
+    
+    /**
+     * Runs the algorithm over the current array on a background thread and writes
+     * every step to a binary trace file that playTraceFile can replay without
+     * regenerating it. Reset cancels the save and deletes the partial file.
+     */
+    public void saveTrace(String algorithm, Path file) {
+        if (isRunning || generationTask != null) return;
+        
+        BiConsumer<int[], Consumer<SortStep>> sorter = sortingAlgorithms.forName(algorithm);
+        if (sorter == null) return;
+        
+        int[] input = array.clone();
+        int interval = checkpointIntervalFor(input.length);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        generationCancelled = cancelled;
+        showProgress("Generating " + algorithm + "...");
+        generationTask = BackgroundTasks.GENERATION.submit(
+            () -> writeTrace(algorithm, sorter, input, interval, file, cancelled));
+    }
+    
+    // Runs on a generation thread; everything shown on screen goes through Platform.runLater
+    private void writeTrace(String algorithm, BiConsumer<int[], Consumer<SortStep>> sorter, int[] input,
+                            int interval, Path file, AtomicBoolean cancelled) {
+        String message;
+        try (TraceFileWriter writer = new TraceFileWriter(file, algorithm, input, interval)) {
+            // Parallel Merge Sort calls back from its pool threads, so a flag is checked instead of interrupts
+            sorter.accept(input.clone(), step -> {
+                if (cancelled.get()) {
+                    throw new CancellationException();
+                }
+                writer.accept(step);
+                long written = writer.getStepCount();
+                if (written % PROGRESS_INTERVAL == 0) {
+                    Platform.runLater(() -> showGenerationProgress(cancelled,
+                        String.format("Generating %s... %,d steps", algorithm, written)));
+                }
+            });
+            message = String.format("💾 Saved %,d steps of %s (%,d KB)",
+                writer.getStepCount(), algorithm, writer.getBytesWritten() / 1024);
+        } catch (CancellationException e) {
+            deletePartialTrace(file);
+            return;
+        } catch (IOException | UncheckedIOException e) {
+            if (cancelled.get()) {
+                // Reset already cleared the task; the failure is only the cancel catching up
+                deletePartialTrace(file);
+                return;
+            }
+            message = "⚠️ Could not save trace: " + e.getMessage();
+        } catch (RuntimeException e) {
+            // Clear the task so Save is not refused for good, then let the executor see the failure
+            deletePartialTrace(file);
+            Platform.runLater(() -> finishGeneration(cancelled, "⚠️ Could not save trace: " + e));
+            throw e;
+        }
+        String result = message;
+        Platform.runLater(() -> finishGeneration(cancelled, result));
+    }
+    
+    private static void deletePartialTrace(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // A partial file left behind fails MappedTrace's checks when opened
+        }
+    }
+    
+    // Updates from a task that Reset has already cancelled are dropped
+    private void showGenerationProgress(AtomicBoolean task, String message) {
+        if (task == generationCancelled) {
+            showProgress(message);
+        }
+    }
+    
+    private void finishGeneration(AtomicBoolean task, String message) {
+        if (task != generationCancelled) return;
+        
+        generationCancelled = null;
+        generationTask = null;
+        showProgress(null);
+        updateStatus(message);
+    }
+    
+    private void cancelGeneration() {
+        if (generationTask == null) return;
+        
+        // Only the flag: an interrupt would close the writer's channel under it
+        generationCancelled.set(true);
+        generationTask.cancel(false);
+        generationCancelled = null;
+        generationTask = null;
+        showProgress(null);
+    }
+    
+    // Replays a saved trace from a memory-mapped file instead of running the algorithm
+    public void playTraceFile(Path file, double speed, boolean showCode) {
+        if (isRunning) return;
+        
+        MappedTrace trace;
+        try {
+            trace = MappedTrace.open(file);
+        } catch (IOException e) {
+            updateStatus("⚠️ Could not open trace: " + e.getMessage());
+            return;
+        }
+        
+        array = trace.getInitialState();
+        arraySize = array.length;
+        generationNanos = null;
+        selectRenderer();
+        if (codeTracker != null) {
+            codeTracker.loadAlgorithmCode(trace.getAlgorithm());
+        }
+        play(trace, speed, showCode);
+    }
+    
+    private void play(StepStream steps, double speed, boolean showCode) {
+        String algorithm = steps.getAlgorithm();
+        
         barVisualizer.resetAll();
         
         isRunning = true;
         updateStatus("Starting " + algorithm + "... ⚡");
         
-        int[] arrayCopy = array.clone();
-        List<SortStep> steps = new ArrayList<>();
-        
-        switch (algorithm) {
-            case "Bubble Sort":
-                steps = sortingAlgorithms.bubbleSort(arrayCopy);
-                break;
-            case "Selection Sort":
-                steps = sortingAlgorithms.selectionSort(arrayCopy);
-                break;
-            case "Insertion Sort":
-                steps = sortingAlgorithms.insertionSort(arrayCopy);
-                break;
-            case "Merge Sort":
-                steps = sortingAlgorithms.mergeSort(arrayCopy);
-                break;
-            case "Quick Sort":
-                steps = sortingAlgorithms.quickSort(arrayCopy);
-                break;
-        }
+        barVisualizer.updateVisualization(steps.getInitialState());
+        scrubBar.setDisable(false);
+        reverseToggle.setSelected(false);
 
-        barVisualizer.updateVisualization(arrayCopy);
+        SortAlgorithm sorter = SortingAlgorithms.get(algorithm);
+        animationManager.setLineProfile(sorter != null ? new LineProfile(sorter) : null);
+        if (codeTracker != null) {
+            codeTracker.clearHeatMap();
+        }
 
         animationManager.playStepsWithCodeTracking(steps, barVisualizer, speed, 
             () -> {
                 isRunning = false;
+                if (animationManager.isReverse()) {
+                    updateStatus("⏮️ Rewound to the unsorted array");
+                    updateStatistics(animationManager.getStatistics());
+                    return;
+                }
                 updateStatus("Sorting completed! ✨ Array is now sorted.");
+                updateStatistics(animationManager.getStatistics());
 
                 if (codeTracker != null && showCode) {
                     codeTracker.clearHighlight();
+                    codeTracker.updateHeatMap(animationManager.getLineProfile());
                 }
             },
             (step) -> {
                 updateStatus(step.getDescription());
+                updateScrubBar();
+                updateStatistics(animationManager.getStatistics());
 
                 if (showCode && codeTracker != null) {
                     int lineIndex = getCodeLineForStep(step, algorithm);
                     if (lineIndex >= 0) {
                         codeTracker.highlightLine(lineIndex);
                     }
+                    codeTracker.updateHeatMap(animationManager.getLineProfile());
                 }
             }
         );
     }
     private int getCodeLineForStep(SortStep step, String algorithm) {
-
-        switch (algorithm) {
-            case "Bubble Sort":
-                switch (step.getType()) {
-                    case COMPARE: return 5;
-                    case SWAP: return 6; 
-                    case SORTED: return 9;
-                    default: return 2;
-                }
-                
-            case "Selection Sort":
-                switch (step.getType()) {
-                    case CURRENT: return 2;
-                    case COMPARE: return 5;
-                    case SELECT: return 6;
-                    case SWAP: return 7;
-                    default: return 3;
-                }
-                
-            case "Insertion Sort":
-                switch (step.getType()) {
-                    case CURRENT: return 2; 
-                    case COMPARE: return 4; 
-                    case SHIFT: return 5;  
-                    case INSERT: return 7;
-                    default: return 1; 
-                }
-                
-            case "Merge Sort":
-                switch (step.getType()) {
-                    case DIVIDE: return 2;        
-                    case MERGE_PREP: return 8;   
-                    case COMPARE: return 11;     
-                    case MERGE_PLACE: return 12; 
-                    default: return 3;  
-                }
-                
-            case "Quick Sort":
-                switch (step.getType()) {
-                    case PARTITION_START: return 2; 
-                    case PIVOT_SELECT: return 7; 
-                    case COMPARE: return 10;    
-                    case SWAP: return 12;          
-                    case PIVOT_FINAL: return 13;   
-                    default: return 1;             
-                }
-                
-            default:
-                return -1; 
-        }
+        SortAlgorithm sorter = SortingAlgorithms.get(algorithm);
+        return sorter != null ? sorter.getCodeLine(step) : -1;
+    }
+    
+    public void setSpeed(double speed) {
+        animationManager.setSpeed(speed);
+    }
+    
+    public void setTargetFps(int fps) {
+        animationManager.setTargetFps(fps);
     }
     
     public void pauseSorting() {
@@ -212,6 +534,38 @@ public class VisualizerController {
         }
     }
     
+    // Plays on from the current step in either direction, including after playback has ended
+    public void setReverse(boolean reverse) {
+        animationManager.setReverse(reverse);
+        if (animationManager.isRunning()) {
+            isRunning = true;
+            updateStatus(reverse ? "⏪ Playing backwards" : "▶️ Playing forwards");
+        }
+    }
+    
+    // Single steps pause playback first, so the step shown is the one the buttons move from
+    public void stepBackward() {
+        if (animationManager.isSeeking()) return;
+        pauseForStepping();
+        if (!animationManager.stepBackward()) {
+            updateStatus("⏮️ Already at the first step");
+        }
+    }
+    
+    public void stepForward() {
+        if (animationManager.isSeeking()) return;
+        pauseForStepping();
+        if (!animationManager.stepForward()) {
+            updateStatus("⏭️ No more steps");
+        }
+    }
+    
+    private void pauseForStepping() {
+        if (animationManager.isRunning()) {
+            animationManager.pauseAnimation();
+        }
+    }
+    
     private void updateStatus(String message) {
         statusLabel.setText(message);
     }
@@ -0,0 +1,50 @@
+package com.visualizer.sorting;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The O(n log n) algorithms on uniform inputs up to a million elements, where the
+ * quadratic ones would take minutes per operation. Each operation is a whole sort,
+ * so these are timed as single shots. The million-element traceCapture case needs
+ * the large heap below.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx12g"})
+@State(Scope.Benchmark)
+public class LargeInputBenchmark {
+
+    @Param({"Merge Sort", "Parallel Merge Sort", "Quick Sort"})
+    public String algorithm;
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    private BiConsumer<int[], Consumer<SortStep>> sorter;
+    private int[] input;
+
+    @Setup
+    public void setUp() {
+        sorter = new SortingAlgorithms().forName(algorithm);
+        input = InputDistribution.UNIFORM.generate(size, 42);
+    }
+
+    @Benchmark
+    public void pureSort(Blackhole blackhole) {
+        sorter.accept(input.clone(), blackhole::consume);
+    }
+
+    @Benchmark
+    public SortTrace traceCapture() {
+        int[] array = input.clone();
+        SortTrace trace = new SortTrace(array);
+        sorter.accept(array, trace::add);
+        return trace;
+    }
+}
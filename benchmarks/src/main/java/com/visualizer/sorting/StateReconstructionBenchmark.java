@@ -0,0 +1,70 @@
+package com.visualizer.sorting;
+
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Rebuilding the array a renderer needs, which is what BarVisualizer.updateBarsFromArray
+ * consumes. replayAll applies every step's mutation in order, as playback does;
+ * copyPerStep is the old per-step array snapshot for comparison; seekRandom restores
+ * arbitrary steps from the trace's checkpoints, as the scrub bar does.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StateReconstructionBenchmark {
+
+    @Param({"Insertion Sort", "Merge Sort", "Quick Sort"})
+    public String algorithm;
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private SortTrace trace;
+    private int[] state;
+    private int[] snapshot;
+    private final BitSet sorted = new BitSet();
+    private long seekSeed = 1;
+
+    @Setup
+    public void setUp() {
+        int[] array = InputDistribution.UNIFORM.generate(size, 42);
+        trace = new SortTrace(array);
+        new SortingAlgorithms().forName(algorithm).accept(array, trace::add);
+        state = new int[size];
+        snapshot = new int[size];
+    }
+
+    @Benchmark
+    public int[] replayAll() {
+        trace.restoreState(0, state);
+        for (int i = 0; i < trace.size(); i++) {
+            trace.get(i).applyTo(state);
+        }
+        return state;
+    }
+
+    @Benchmark
+    public int[] copyPerStep() {
+        trace.restoreState(0, state);
+        for (int i = 0; i < trace.size(); i++) {
+            trace.get(i).applyTo(state);
+            System.arraycopy(state, 0, snapshot, 0, state.length);
+        }
+        return snapshot;
+    }
+
+    @Benchmark
+    public int seekRandom() {
+        // Cheap xorshift so picking the target costs nothing next to the seek
+        seekSeed ^= seekSeed << 13;
+        seekSeed ^= seekSeed >>> 7;
+        seekSeed ^= seekSeed << 17;
+        int target = (int) Math.floorMod(seekSeed, (long) trace.size() + 1);
+        return trace.restoreState(target, state, sorted);
+    }
+}
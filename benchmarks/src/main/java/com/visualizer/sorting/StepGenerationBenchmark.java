@@ -0,0 +1,84 @@
+package com.visualizer.sorting;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Step generation for every algorithm on inputs of every shape, from a hundred to
+ * a million elements. pureSort hands each built step to a Blackhole and keeps
+ * nothing; countingSort and noSink run the same code into StepSink.Counting and
+ * StepSink.NONE, which never build a step; traceCapture records the run into a
+ * SortTrace the way playback does. Run with -prof gc for allocation per operation.
+ *
+ * The quadratic sorts are capped at QUADRATIC_MAX_SIZE elements, as a single
+ * operation past that takes minutes: their larger cases fail in setup with a
+ * message saying so and the run moves on. Pass -p size=... to pick sizes. The
+ * million-element traceCapture cases need the large heap below; LargeInputBenchmark
+ * times the same large sorts as single shots.
+ *
+ * Lives in com.visualizer.sorting because the visualizer classes are package-private.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx12g"})
+@State(Scope.Benchmark)
+public class StepGenerationBenchmark {
+    static final int QUADRATIC_MAX_SIZE = 10_000;
+    private static final Set<String> QUADRATIC = Set.of("Bubble Sort", "Selection Sort", "Insertion Sort");
+
+    @Param({"Bubble Sort", "Selection Sort", "Insertion Sort", "Merge Sort", "Parallel Merge Sort", "Quick Sort"})
+    public String algorithm;
+
+    @Param({"100", "1000", "10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"UNIFORM", "SORTED", "REVERSED", "NEARLY_SORTED", "FEW_UNIQUE"})
+    public String distribution;
+
+    private final SortingAlgorithms algorithms = new SortingAlgorithms();
+    private BiConsumer<int[], Consumer<SortStep>> sorter;
+    private int[] input;
+
+    @Setup
+    public void setUp() {
+        if (QUADRATIC.contains(algorithm) && size > QUADRATIC_MAX_SIZE) {
+            throw new IllegalStateException(String.format(
+                "Skipped: %s is quadratic and capped at %,d elements", algorithm, QUADRATIC_MAX_SIZE));
+        }
+        sorter = algorithms.forName(algorithm);
+        input = InputDistribution.parse(distribution).generate(size, 42);
+    }
+
+    @Benchmark
+    public void pureSort(Blackhole blackhole) {
+        sorter.accept(input.clone(), blackhole::consume);
+    }
+
+    @Benchmark
+    public SortingStatistics countingSort() {
+        SortingStatistics statistics = new SortingStatistics(algorithm);
+        algorithms.sort(algorithm, input.clone(), new StepSink.Counting(statistics));
+        return statistics;
+    }
+
+    @Benchmark
+    public int[] noSink() {
+        int[] array = input.clone();
+        algorithms.sort(algorithm, array, StepSink.NONE);
+        return array;
+    }
+
+    @Benchmark
+    public SortTrace traceCapture() {
+        int[] array = input.clone();
+        SortTrace trace = new SortTrace(array);
+        sorter.accept(array, trace::add);
+        return trace;
+    }
+}